@@ -29,6 +29,25 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // Benchmarks only run when asked for: ./gradlew testDebugUnitTest -Pbenchmark
+                // (dataset sizes: -Pbenchmark.sizes for TaskDao, -Pbenchmark.uiSizes for MainActivity)
+                if (project.hasProperty("benchmark")) {
+                    it.filter.includeTestsMatching("com.example.todolistsqlite.benchmark.*")
+                    it.systemProperty("benchmark.sizes", project.findProperty("benchmark.sizes") ?: "10000,100000,1000000")
+                    it.systemProperty("benchmark.uiSizes", project.findProperty("benchmark.uiSizes") ?: "100,1000,10000")
+                    it.systemProperty("benchmark.outputDir", layout.buildDirectory.dir("benchmark").get().asFile.path)
+                    it.maxHeapSize = "4g"
+                    it.outputs.upToDateWhen { false }
+                } else {
+                    it.exclude("**/benchmark/**")
+                }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -40,7 +59,15 @@ dependencies {
     // Room components
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.8.7")
+    // RecyclerView for the recycled, diffed task lists
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
+    // WorkManager for background database maintenance
+    implementation("androidx.work:work-runtime:2.9.1")
     testImplementation(libs.junit)
+    testImplementation("org.robolectric:robolectric:4.14.1")
+    testImplementation("androidx.test:core:1.6.1")
+    testImplementation("androidx.work:work-testing:2.9.1")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.todolistsqlite.activites;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.metrics.RenderMetrics;
+import com.example.todolistsqlite.metrics.StartupMetrics;
+
+// Debug-build screen with startup times, query latency stats, the slow-query log and render counters
+public class DebugActivity extends AppCompatActivity {
+    private TextView statsText;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_debug);
+
+        statsText = findViewById(R.id.debugStatsText);
+        Button refreshButton = findViewById(R.id.debugRefreshButton);
+        Button resetButton = findViewById(R.id.debugResetButton);
+
+        refreshButton.setOnClickListener(v -> refreshStats());
+        resetButton.setOnClickListener(v -> {
+            AppDatabase.getInstance(this).getQueryStats().reset();
+            RenderMetrics.reset();
+            refreshStats();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refreshStats();
+    }
+
+    private void refreshStats() {
+        statsText.setText(getString(R.string.debug_stats_format,
+                StartupMetrics.dump(), AppDatabase.getInstance(this).dumpQueryStats(), RenderMetrics.dump()));
+    }
+}
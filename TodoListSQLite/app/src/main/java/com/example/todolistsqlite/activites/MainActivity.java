@@ -1,122 +1,611 @@
 package com.example.todolistsqlite.activites;
 
+import android.Manifest;
 import android.app.AlertDialog;
 import android.app.DatePickerDialog;
 import android.app.Dialog;
-import android.graphics.Paint;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.OpenableColumns;
+import android.os.Build;
 import android.os.Bundle;
-import android.view.LayoutInflater;
+import android.text.Editable;
+import android.text.InputType;
+import android.text.TextWatcher;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
-import android.widget.CheckBox;
 import android.widget.DatePicker;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.LinearLayout;
+import android.widget.PopupMenu;
 import android.widget.TextView;
+import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.todolistsqlite.database.AppDatabase;
 import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.adapters.TaskListAdapter;
+import com.example.todolistsqlite.backup.BackupFormat;
+import com.example.todolistsqlite.adapters.TaskListItem;
+import com.example.todolistsqlite.adapters.TaskRowFormatter;
+import com.example.todolistsqlite.adapters.TaskRowPipeline;
+import com.example.todolistsqlite.metrics.RenderMetrics;
+import com.example.todolistsqlite.metrics.StartupMetrics;
+import com.example.todolistsqlite.models.BucketCount;
+import com.example.todolistsqlite.models.RecurrenceRule;
 import com.example.todolistsqlite.models.Task;
-import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.TaskCounts;
+import com.example.todolistsqlite.repository.SearchRanking;
+import com.example.todolistsqlite.repository.TaskRepository;
+import com.example.todolistsqlite.repository.TaskStore;
+import com.example.todolistsqlite.time.DayBoundaryScheduler;
+import com.example.todolistsqlite.workers.DatabaseMaintenanceWorker;
+import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.tabs.TabLayout;
 
+import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
-public class MainActivity extends AppCompatActivity {
+public class MainActivity extends AppCompatActivity implements TaskListAdapter.OnTaskActionListener {
     private EditText taskNameInput;
+    private EditText searchInput;
     private ImageButton datePickerBtn;
+    private ImageButton menuBtn;
     private Button addTaskBtn;
-    private LinearLayout todayTasksContainer;
-    private LinearLayout futureTasksContainer;
+    private Button repeatBtn;
     private TextView selectedDateText;
     private TabLayout tabLayout;
-    private LinearLayout logContainer;
     private LinearLayout addTaskSection;
-    
-    // Empty state views
-    private View mainEmptyState;
-    private View historyEmptyState;
 
-    private List<Task> tasks;
+    // Recycled task lists for the Main and History tabs; rows are built off the main thread
+    private TaskRowPipeline rowPipeline;
+    private RecyclerView taskRecyclerView;
+    private RecyclerView historyRecyclerView;
+    private TaskListAdapter taskAdapter;
+    private TaskListAdapter historyAdapter;
+    private RecyclerView searchRecyclerView;
+    private TaskListAdapter searchAdapter;
+
+    // Loaded lists and counts live in the shared TaskStore; observers and writers publish to it
+    // and rows are built from whole snapshots. This is the last one rendered.
+    private TaskStore taskStore;
+    private TaskStore.Snapshot renderedSnapshot;
+    private final TaskStore.Listener snapshotListener = this::onSnapshot;
+    // Startup order: counts and today's tasks first, everything else once they are on screen
+    private boolean deferredStartupDone;
+    // Main tab queries for the current date; replaced when the date changes
+    private LiveData<TaskCounts> countsLiveData;
+    private LiveData<List<Task>> todayLiveData;
+    private LiveData<List<Task>> futureLiveData;
+    // The date the lists are sliced by; moves at midnight and on clock or time zone changes
+    private DayBoundaryScheduler dayBoundaryScheduler;
+
+    // History is read in keyset pages as the user scrolls towards the end of what is loaded
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private static final int HISTORY_PREFETCH_DISTANCE = 10;
+    // The cursor this activity's History load was read from, or null while none is running.
+    // The cursor itself lives in the task store, which outlives the activity.
+    private TaskStore.HistoryCursor historyRequest;
+    // History only re-reads after a write; switching tabs alone does not
+    private boolean historyStale = true;
+    private InvalidationTracker.Observer historyChangeObserver;
+
+    // Search results replace the tab content while the search field has text
+    private static final int SEARCH_PAGE_SIZE = 50;
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private final List<Task> searchResults = new ArrayList<>();
+    private final Runnable searchRunnable = this::runSearch;
+    private String searchQuery = "";
+    private boolean searchLoading;
+    private boolean searchEndReached;
+    // The query matched more tasks than are ranked; the list says so above the results
+    private boolean searchTruncated;
+    // Where the results shown so far end in the ranking
+    private SearchRanking.Cursor searchCursor = SearchRanking.Cursor.START;
+    private int searchGeneration;
     private LocalDate selectedDate;
+    // Repeat choice for the next added task; null adds a one-off task
+    private RecurrenceRule.Frequency repeatFrequency;
+    private int repeatInterval = 1;
     private DateTimeFormatter dateFormat;
 
-    // Obtain Room database DAO
-    private TaskDao taskDao;
+    // All database access goes through the repository, off the main thread
+    private TaskRepository taskRepository;
+
+    // Backup files are picked with the system document UI
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(BackupFormat.JSON_LINES.getMimeType()),
+            uri -> exportTasks(uri, BackupFormat.JSON_LINES));
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(BackupFormat.CSV.getMimeType()),
+            uri -> exportTasks(uri, BackupFormat.CSV));
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importTasks);
+    // Reminders are only posted once this is granted; declining just leaves them off
+    private final ActivityResultLauncher<String> notificationPermissionLauncher = registerForActivityResult(
+            new ActivityResultContracts.RequestPermission(), granted -> {});
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
 
-        // Obtain Room database DAO
-        taskDao = AppDatabase.getInstance(this).taskDao();
+        // Start opening the database while the shell inflates and draws; nothing here waits for it
+        taskRepository = TaskRepository.getInstance(this);
+        taskRepository.warmUp();
+        taskStore = taskRepository.getTaskStore();
+        dayBoundaryScheduler = new DayBoundaryScheduler(this, Clock.systemDefaultZone(), this::onDayChanged);
+
+        setContentView(R.layout.activity_main);
+        StartupMetrics.trackFirstFrame(getWindow().getDecorView());
 
-        initializeViews();
         initializeData();
+        initializeViews();
         setupEventListeners();
 
-        // Refresh lists initially so Log tab has content
-        refreshTaskLists();
+        // Loading placeholder until the first counts arrive
+        observeMainTasks();
+        taskStore.addListener(snapshotListener);
+        onSnapshot(taskStore.snapshot());
+    }
+
+    // Renders the parts that changed since the last snapshot
+    private void onSnapshot(@NonNull TaskStore.Snapshot snapshot) {
+        TaskStore.Snapshot previous = renderedSnapshot;
+        renderedSnapshot = snapshot;
+        boolean countsChanged = previous == null || previous.counts != snapshot.counts
+                || previous.countsLoaded != snapshot.countsLoaded;
+        if (countsChanged) {
+            updateTabBadges(snapshot.counts);
+        }
+        if (countsChanged || previous.mainVersion != snapshot.mainVersion) {
+            refreshTaskLists(snapshot);
+        }
+        if (countsChanged || previous.historyVersion != snapshot.historyVersion) {
+            refreshLogList(snapshot);
+        }
+        onMainContentShown(snapshot);
+    }
+
+    // Runs once today's section is on screen: the future list, history invalidation and maintenance
+    private void onMainContentShown(@NonNull TaskStore.Snapshot snapshot) {
+        if (deferredStartupDone || !snapshot.countsLoaded || !snapshot.todayLoaded) return;
+        deferredStartupDone = true;
+        StartupMetrics.markContent();
+        reportFullyDrawn();
+
+        observeFutureTasks(snapshot.today);
+        historyChangeObserver = taskRepository.addTaskChangeObserver(this::onTasksChanged);
+        DatabaseMaintenanceWorker.schedule(this);
+        // Re-arms the reminder alarm in case it was cleared, e.g. by a force stop
+        taskRepository.rebuildReminders();
+        requestNotificationPermission();
+    }
+
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            notificationPermissionLauncher.launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        dayBoundaryScheduler.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        dayBoundaryScheduler.stop();
+        // Don't leave coalesced checkbox writes waiting while the app is in the background
+        taskRepository.flushPendingWrites();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // A debounced search would otherwise still run against the repository
+        searchInput.removeCallbacks(searchRunnable);
+        rowPipeline.shutdown();
+        taskStore.removeListener(snapshotListener);
+        if (historyChangeObserver != null) {
+            taskRepository.removeTaskChangeObserver(historyChangeObserver);
+        }
     }
 
     private void initializeViews() {
         taskNameInput = findViewById(R.id.taskNameInput);
+        searchInput = findViewById(R.id.searchInput);
         datePickerBtn = findViewById(R.id.datePickerButton);
+        menuBtn = findViewById(R.id.menuButton);
         addTaskBtn = findViewById(R.id.addTaskButton);
-        todayTasksContainer = findViewById(R.id.todayTasksContainer);
-        futureTasksContainer = findViewById(R.id.futureTasksContainer);
+        repeatBtn = findViewById(R.id.repeatButton);
         selectedDateText = findViewById(R.id.selectedDateText);
         addTaskSection = findViewById(R.id.addTaskSection);
-        logContainer = findViewById(R.id.logContainer);
         tabLayout = findViewById(R.id.tabLayout);
-        
-        // Initialize empty state views
-        createEmptyStateViews();
-    }
-
-    private void createEmptyStateViews() {
-        LayoutInflater inflater = LayoutInflater.from(this);
-        
-        // Create empty state for main page (when no tasks exist at all)
-        mainEmptyState = inflater.inflate(R.layout.empty_state_view, null);
-        TextView mainTitle = mainEmptyState.findViewById(R.id.emptyStateTitle);
-        TextView mainMessage = mainEmptyState.findViewById(R.id.emptyStateMessage);
-        mainTitle.setText(R.string.empty_main_title);
-        mainMessage.setText(R.string.empty_main_message);
-        
-        // Create empty state for history
-        historyEmptyState = inflater.inflate(R.layout.empty_state_view, null);
-        TextView historyTitle = historyEmptyState.findViewById(R.id.emptyStateTitle);
-        TextView historyMessage = historyEmptyState.findViewById(R.id.emptyStateMessage);
-        historyTitle.setText(R.string.empty_history_title);
+
+        taskRecyclerView = findViewById(R.id.taskRecyclerView);
+        TaskRowFormatter rowFormatter = TaskRowFormatter.create(taskRecyclerView, dateFormat);
+        rowPipeline = new TaskRowPipeline(rowFormatter);
+
+        taskAdapter = new TaskListAdapter(rowFormatter, this);
+        taskRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        taskRecyclerView.setAdapter(taskAdapter);
+
+        historyAdapter = new TaskListAdapter(rowFormatter, this);
+        historyRecyclerView = findViewById(R.id.historyRecyclerView);
+        historyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        historyRecyclerView.setAdapter(historyAdapter);
+        historyRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= historyAdapter.getItemCount() - HISTORY_PREFETCH_DISTANCE) {
+                    loadNextHistoryPage();
+                }
+            }
+        });
+
+        searchAdapter = new TaskListAdapter(rowFormatter, this);
+        searchRecyclerView = findViewById(R.id.searchRecyclerView);
+        searchRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        searchRecyclerView.setAdapter(searchAdapter);
+        searchRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= searchAdapter.getItemCount() - HISTORY_PREFETCH_DISTANCE) {
+                    loadNextSearchPage();
+                }
+            }
+        });
     }
 
     private void initializeData() {
-        // Load tasks that were persisted previously
-        tasks = new ArrayList<>(taskDao.getAll());
         selectedDate = null; // Initialize selectedDate as null
         dateFormat = DateTimeFormatter.ofPattern("dd MMM, yyyy");
     }
 
+    private void observeMainTasks() {
+        LocalDate today = dayBoundaryScheduler.today();
+        taskStore.update(current -> current.withToday(today));
+        if (countsLiveData != null) {
+            countsLiveData.removeObservers(this);
+            todayLiveData.removeObservers(this);
+        }
+        countsLiveData = taskRepository.observeTaskCounts(today);
+        countsLiveData.observe(this, result -> taskStore.update(current -> current.withCounts(result)));
+        todayLiveData = taskRepository.observeTasksOn(today);
+        todayLiveData.observe(this, result -> {
+            List<Task> tasks = taskRepository.withPendingUpdates(result);
+            taskStore.update(current -> current.withTodayTasks(tasks));
+        });
+    }
+
+    private void observeFutureTasks(@NonNull LocalDate today) {
+        if (futureLiveData != null) {
+            futureLiveData.removeObservers(this);
+        }
+        futureLiveData = taskRepository.observeTasksAfter(today);
+        futureLiveData.observe(this, result -> {
+            List<Task> tasks = taskRepository.withPendingUpdates(result);
+            taskStore.update(current -> current.withFutureTasks(tasks));
+        });
+    }
+
+    /**
+     * Moves the loaded days between Today, Future and History in the store straight away, then
+     * points the queries at the new date. Their first results match what is already indexed except
+     * for the day newly inside the occurrence horizon, so they re-render next to nothing.
+     */
+    private void onDayChanged(@NonNull LocalDate today) {
+        observeMainTasks();
+        if (deferredStartupDone) {
+            observeFutureTasks(today);
+        }
+    }
+
+    private void onTasksChanged() {
+        historyStale = true;
+        if (!isMainTabSelected()) {
+            reloadLoadedHistory();
+        }
+        if (!searchQuery.isEmpty()) {
+            runSearch();
+        }
+    }
+
+    private void loadHistory() {
+        // Start again from the newest page; pages read from an older cursor are dropped by the store
+        historyStale = false;
+        taskStore.update(TaskStore.Snapshot::withHistoryCleared);
+        historyRequest = null;
+        loadNextHistoryPage();
+    }
+
+    private void loadNextHistoryPage() {
+        if (historyRequest != null) return;
+        TaskStore.HistoryCursor cursor = taskStore.snapshot().history;
+        if (cursor.endReached) return;
+        historyRequest = cursor;
+
+        LocalDate afterDate = cursor.afterDate != null ? cursor.afterDate : historyStart();
+        taskRepository.getHistoryPage(afterDate, cursor.afterId, HISTORY_PAGE_SIZE, page -> {
+            if (isDestroyed()) return;
+            if (historyRequest == cursor) historyRequest = null;
+            List<Task> tasks = taskRepository.withPendingUpdates(page);
+            TaskStore.HistoryCursor next = cursor.after(page, HISTORY_PAGE_SIZE);
+            taskStore.update(current -> current.withHistoryPage(cursor, next, tasks));
+        });
+    }
+
+    // Re-reads everything already paged in, in one keyset query from the top
+    private void reloadLoadedHistory() {
+        historyStale = false;
+        TaskStore.HistoryCursor cursor = taskStore.update(TaskStore.Snapshot::withHistoryReload).history;
+        historyRequest = cursor;
+        int limit = Math.max(cursor.loadedCount, HISTORY_PAGE_SIZE);
+        taskRepository.getHistoryPage(historyStart(), Long.MAX_VALUE, limit, result -> {
+            if (isDestroyed()) return;
+            if (historyRequest == cursor) historyRequest = null;
+            List<Task> tasks = taskRepository.withPendingUpdates(result);
+            TaskStore.HistoryCursor next = TaskStore.HistoryCursor.start().after(result, limit);
+            // Days that read back the same keep their place in the index, so nothing is re-rendered
+            taskStore.update(current -> current.withHistoryTasks(cursor, next, tasks));
+        });
+    }
+
+    // History holds the days before today; today's tasks are on the main list
+    @NonNull
+    private LocalDate historyStart() {
+        return dayBoundaryScheduler.today().minusDays(1);
+    }
+
+    private boolean isMainTabSelected() {
+        return tabLayout == null || tabLayout.getSelectedTabPosition() == 0;
+    }
+
     private void setupEventListeners() {
         datePickerBtn.setOnClickListener(v -> showDatePicker());
         addTaskBtn.setOnClickListener(v -> addTask());
+        repeatBtn.setOnClickListener(v -> showRepeatPicker());
+        menuBtn.setOnClickListener(v -> showMenu());
         setupTabLayout();
+        setupSearch();
+    }
+
+    private void setupSearch() {
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Wait for a pause in typing before querying
+                searchQuery = s.toString().trim();
+                searchInput.removeCallbacks(searchRunnable);
+                if (searchQuery.isEmpty()) {
+                    searchGeneration++;
+                    searchResults.clear();
+                    updateListVisibility();
+                } else {
+                    searchInput.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+                }
+            }
+        });
+    }
+
+    // Runs the current query from the first result, keeping as many rows as are already shown
+    private void runSearch() {
+        searchGeneration++;
+        searchLoading = true;
+        int limit = Math.max(searchResults.size(), SEARCH_PAGE_SIZE);
+        int generation = searchGeneration;
+        taskRepository.search(searchQuery, limit, SearchRanking.Cursor.START, result -> {
+            if (isDestroyed()) return;
+            if (generation != searchGeneration) return;
+            searchLoading = false;
+            searchEndReached = result.endReached;
+            searchTruncated = result.truncated;
+            searchCursor = result.next;
+            searchResults.clear();
+            searchResults.addAll(result.tasks);
+            refreshSearchList();
+            updateListVisibility();
+        });
+    }
+
+    private void loadNextSearchPage() {
+        if (searchQuery.isEmpty() || searchLoading || searchEndReached) return;
+        searchLoading = true;
+        int generation = searchGeneration;
+        taskRepository.search(searchQuery, SEARCH_PAGE_SIZE, searchCursor, page -> {
+            if (isDestroyed()) return;
+            if (generation != searchGeneration) return;
+            searchLoading = false;
+            searchEndReached = page.endReached;
+            searchCursor = page.next;
+            searchResults.addAll(page.tasks);
+            refreshSearchList();
+        });
+    }
+
+    private void refreshSearchList() {
+        List<Task> results = new ArrayList<>(searchResults);
+        String truncatedNote = searchTruncated
+                ? getString(R.string.search_truncated, SearchRanking.MAX_CANDIDATES) : null;
+        rowPipeline.submit(searchAdapter, RenderMetrics.REFRESH_SEARCH_LIST, (items, formatter) -> {
+            if (truncatedNote != null) {
+                items.add(TaskListItem.sectionHeader(R.string.search_truncated, truncatedNote));
+            }
+            for (Task task : results) {
+                items.add(TaskListItem.task(task, formatter));
+            }
+            if (results.isEmpty()) {
+                items.add(TaskListItem.empty(R.string.empty_search_title, 0));
+            }
+        });
+    }
+
+    private void updateListVisibility() {
+        boolean searching = !searchQuery.isEmpty();
+        boolean isMain = isMainTabSelected();
+        addTaskSection.setVisibility(isMain && !searching ? View.VISIBLE : View.GONE);
+        taskRecyclerView.setVisibility(isMain && !searching ? View.VISIBLE : View.GONE);
+        historyRecyclerView.setVisibility(!isMain && !searching ? View.VISIBLE : View.GONE);
+        searchRecyclerView.setVisibility(searching ? View.VISIBLE : View.GONE);
+    }
+
+    private void showMenu() {
+        PopupMenu popupMenu = new PopupMenu(this, menuBtn);
+        popupMenu.inflate(R.menu.main_menu);
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        popupMenu.getMenu().findItem(R.id.action_debug_stats).setVisible(debuggable);
+        popupMenu.setOnMenuItemClickListener(item -> {
+            if (item.getItemId() == R.id.action_clear_completed_history) {
+                confirmClearCompletedHistory();
+                return true;
+            } else if (item.getItemId() == R.id.action_export_json) {
+                exportJsonLauncher.launch("tasks" + BackupFormat.JSON_LINES.getExtension());
+                return true;
+            } else if (item.getItemId() == R.id.action_export_csv) {
+                exportCsvLauncher.launch("tasks" + BackupFormat.CSV.getExtension());
+                return true;
+            } else if (item.getItemId() == R.id.action_import) {
+                importLauncher.launch(new String[]{"*/*"});
+                return true;
+            } else if (item.getItemId() == R.id.action_statistics) {
+                startActivity(new Intent(this, StatisticsActivity.class));
+                return true;
+            } else if (item.getItemId() == R.id.action_debug_stats) {
+                startActivity(new Intent(this, DebugActivity.class));
+                return true;
+            }
+            return false;
+        });
+        popupMenu.show();
+    }
+
+    private void exportTasks(Uri uri, @NonNull BackupFormat format) {
+        if (uri == null) return;
+        ParcelFileDescriptor file;
+        try {
+            file = getContentResolver().openFileDescriptor(uri, "wt");
+        } catch (FileNotFoundException e) {
+            file = null;
+        }
+        if (file == null) {
+            Toast.makeText(this, R.string.export_failed, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        FileChannel channel = new ParcelFileDescriptor.AutoCloseOutputStream(file).getChannel();
+        AlertDialog progressDialog = showBackupProgress(R.string.exporting_tasks);
+        taskRepository.exportTasks(channel, format,
+                (records, fraction) -> updateBackupProgress(progressDialog, records, fraction),
+                count -> {
+                    progressDialog.dismiss();
+                    Toast.makeText(this, count != null ? getString(R.string.tasks_exported_count, count)
+                            : getString(R.string.export_failed), Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    private void importTasks(Uri uri) {
+        if (uri == null) return;
+        // The format follows the file name; the size drives the progress fraction
+        String name = "";
+        long size = -1;
+        try (Cursor cursor = getContentResolver().query(uri,
+                new String[]{OpenableColumns.DISPLAY_NAME, OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                if (!cursor.isNull(0)) name = cursor.getString(0);
+                if (!cursor.isNull(1)) size = cursor.getLong(1);
+            }
+        }
+        ParcelFileDescriptor file;
+        try {
+            file = getContentResolver().openFileDescriptor(uri, "r");
+        } catch (FileNotFoundException e) {
+            file = null;
+        }
+        if (file == null) {
+            Toast.makeText(this, R.string.import_failed, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        FileChannel channel = new ParcelFileDescriptor.AutoCloseInputStream(file).getChannel();
+        AlertDialog progressDialog = showBackupProgress(R.string.importing_tasks);
+        taskRepository.importTasks(channel, size, BackupFormat.fromFileName(name),
+                (records, fraction) -> updateBackupProgress(progressDialog, records, fraction),
+                count -> {
+                    progressDialog.dismiss();
+                    Toast.makeText(this, count != null ? getString(R.string.tasks_imported_count, count)
+                            : getString(R.string.import_failed), Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    private AlertDialog showBackupProgress(@StringRes int titleRes) {
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(titleRes)
+                .setMessage(getString(R.string.backup_progress_unknown, 0))
+                .setCancelable(false)
+                .create();
+        dialog.show();
+        return dialog;
+    }
+
+    private void updateBackupProgress(@NonNull AlertDialog dialog, long records, float fraction) {
+        dialog.setMessage(fraction >= 0
+                ? getString(R.string.backup_progress, records, Math.round(fraction * 100))
+                : getString(R.string.backup_progress_unknown, records));
+    }
+
+    private void confirmClearCompletedHistory() {
+        AlertDialog clearDialog = new AlertDialog.Builder(this)
+                .setTitle(R.string.clear_completed_history)
+                .setMessage(R.string.clear_completed_history_confirmation)
+                .setPositiveButton(R.string.delete_text, (dialog, which) -> {
+                    // The shared stamp lets Undo restore exactly this batch
+                    long deletedAt = System.currentTimeMillis();
+                    taskRepository.deleteCompletedBefore(dayBoundaryScheduler.today(), deletedAt, count ->
+                            showUndoSnackbar(getResources().getQuantityString(
+                                    R.plurals.tasks_deleted_count, count, count),
+                                    () -> taskRepository.restoreDeleted(deletedAt, null)));
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .create();
+
+        clearDialog.show();
+
+        // Set delete button text color to red
+        clearDialog.getButton(AlertDialog.BUTTON_POSITIVE)
+                .setTextColor(ContextCompat.getColor(this, R.color.delete_red));
     }
 
     private void showDatePicker() {
-        LocalDate initialDate = selectedDate != null ? selectedDate : LocalDate.now();
+        LocalDate initialDate = selectedDate != null ? selectedDate : dayBoundaryScheduler.today();
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 this,
                 (DatePicker view, int year, int month, int dayOfMonth) -> {
@@ -148,159 +637,245 @@ public class MainActivity extends AppCompatActivity {
             if (selectedDate != null) {
                 taskDate = selectedDate;
             } else {
-                taskDate = LocalDate.now(); // Default to today if no date is selected
+                taskDate = dayBoundaryScheduler.today(); // Default to today if no date is selected
+            }
+            if (repeatFrequency != null) {
+                // One series row; occurrences are computed from it as the lists need them
+                taskRepository.insertSeries(new RecurrenceRule(taskName, repeatFrequency, repeatInterval, taskDate), null);
+            } else {
+                Task newTask = new Task(taskName, taskDate);
+                taskRepository.insert(newTask, null);
             }
-            Task newTask = new Task(taskName, taskDate);
-            long id = taskDao.insert(newTask);
-            newTask.setId(id);
-            tasks.add(newTask);
             taskNameInput.setText("");
             selectedDate = null; // Reset selectedDate after adding a task
             updateSelectedDateText(); // Update the text to be empty
-
-            refreshTaskLists();
+            setRepeat(null, 1);
         }
     }
 
-    private void refreshTaskLists() {
-        todayTasksContainer.removeAllViews();
-        futureTasksContainer.removeAllViews();
+    private void showRepeatPicker() {
+        String[] choices = {
+                getString(R.string.repeat_none),
+                getString(R.string.repeat_daily),
+                getString(R.string.repeat_weekly),
+                getString(R.string.repeat_monthly),
+                getString(R.string.repeat_every_n_days)
+        };
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.repeat_title)
+                .setItems(choices, (dialog, which) -> {
+                    if (which == 0) {
+                        setRepeat(null, 1);
+                    } else if (which == 1) {
+                        setRepeat(RecurrenceRule.Frequency.DAILY, 1);
+                    } else if (which == 2) {
+                        setRepeat(RecurrenceRule.Frequency.WEEKLY, 1);
+                    } else if (which == 3) {
+                        setRepeat(RecurrenceRule.Frequency.MONTHLY, 1);
+                    } else {
+                        showRepeatDaysPicker();
+                    }
+                })
+                .show();
+    }
 
-        TextView todayTasksHeader = findViewById(R.id.todayTasksHeader);
-        TextView futureTasksHeader = findViewById(R.id.futureTasksHeader);
+    private void showRepeatDaysPicker() {
+        EditText daysInput = new EditText(this);
+        daysInput.setInputType(InputType.TYPE_CLASS_NUMBER);
+        daysInput.setHint(R.string.repeat_days_hint);
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.repeat_title)
+                .setView(daysInput)
+                .setPositiveButton(android.R.string.ok, (dialog, which) -> {
+                    try {
+                        int days = Integer.parseInt(daysInput.getText().toString().trim());
+                        if (days > 0) {
+                            setRepeat(RecurrenceRule.Frequency.DAILY, days);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Leave the current choice
+                    }
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
 
-        LocalDate today = LocalDate.now();
+    private void setRepeat(RecurrenceRule.Frequency frequency, int interval) {
+        repeatFrequency = frequency;
+        repeatInterval = interval;
+        if (frequency == null) {
+            repeatBtn.setText(R.string.repeat_none);
+        } else if (interval > 1) {
+            repeatBtn.setText(getString(R.string.repeat_every_days, interval));
+        } else if (frequency == RecurrenceRule.Frequency.WEEKLY) {
+            repeatBtn.setText(R.string.repeat_weekly);
+        } else if (frequency == RecurrenceRule.Frequency.MONTHLY) {
+            repeatBtn.setText(R.string.repeat_monthly);
+        } else {
+            repeatBtn.setText(R.string.repeat_daily);
+        }
+    }
+
+    // Rows are built on the pipeline thread straight from the immutable snapshot
+    private void refreshTaskLists(@NonNull TaskStore.Snapshot snapshot) {
+        // The index reads today's tasks incomplete first and future tasks by date, then completion
+        // Which sections exist comes from the counts, not from walking the lists
+        TaskCounts counts = snapshot.counts;
+        boolean loaded = snapshot.countsLoaded;
+        LocalDate day = snapshot.today;
+        rowPipeline.submit(taskAdapter, RenderMetrics.REFRESH_TASK_LISTS, (items, formatter) -> {
+            int todayTotal = counts.getTotal(BucketCount.TODAY);
+            int futureTotal = counts.getTotal(BucketCount.FUTURE);
+            if (!loaded) {
+                items.add(TaskListItem.empty(R.string.loading_tasks, 0));
+            } else if (todayTotal == 0 && futureTotal == 0) {
+                items.add(TaskListItem.empty(R.string.empty_main_title, R.string.empty_main_message));
+            }
+            if (todayTotal > 0) {
+                items.add(TaskListItem.sectionHeader(R.string.today_task, day,
+                        counts.getCompleted(BucketCount.TODAY), todayTotal, formatter));
+                for (Task task : snapshot.todayTasks()) {
+                    items.add(TaskListItem.task(task, formatter));
+                }
+            }
+            if (futureTotal > 0) {
+                items.add(TaskListItem.sectionHeader(R.string.future_task,
+                        counts.getCompleted(BucketCount.FUTURE), futureTotal, formatter));
+                addGroupedByDate(items, snapshot.futureTasks(), formatter);
+            }
+        });
+    }
+
+    private void refreshLogList(@NonNull TaskStore.Snapshot snapshot) {
+        // Past days are read newest first, so a header starts each new date group
+        // History lists the days before today; the empty state doesn't wait for the first page
+        boolean empty = snapshot.counts.getTotal(BucketCount.PAST) == 0;
+        rowPipeline.submit(historyAdapter, RenderMetrics.REFRESH_LOG_LIST, (items, formatter) -> {
+            if (empty) {
+                items.add(TaskListItem.empty(R.string.empty_history_title, 0));
+            } else {
+                addGroupedByDate(items, snapshot.historyTasks(), formatter);
+            }
+        });
+    }
 
-        // Sort tasks by date (ascending) and then by completion status (incomplete first)
-        tasks.sort(Comparator.comparing(Task::getDate)
-                .thenComparing(Task::isCompleted));
 
-        boolean hasTodayTasks = false;
-        boolean hasFutureTasks = false;
+    private void updateTabBadges(@NonNull TaskCounts taskCounts) {
+        setTabProgress(0, R.string.tab_main,
+                taskCounts.getCompleted(BucketCount.TODAY) + taskCounts.getCompleted(BucketCount.FUTURE),
+                taskCounts.getTotal(BucketCount.TODAY) + taskCounts.getTotal(BucketCount.FUTURE));
+        setTabProgress(1, R.string.tab_log,
+                taskCounts.getCompleted(BucketCount.PAST), taskCounts.getTotal(BucketCount.PAST));
+    }
 
-        LocalDate lastFutureDate = null;
+    private void setTabProgress(int position, @StringRes int labelRes, int done, int total) {
+        TabLayout.Tab tab = tabLayout.getTabAt(position);
+        if (tab == null) return;
+        String label = getString(labelRes);
+        tab.setText(total > 0 ? getString(R.string.tab_progress, label, done, total) : label);
+    }
 
+    private static void addGroupedByDate(@NonNull List<TaskListItem> items, @NonNull List<Task> tasks,
+                                         @NonNull TaskRowFormatter formatter) {
+        LocalDate lastDate = null;
         for (Task task : tasks) {
-            if (task.getDate().equals(today)) {
-                View taskView = createTaskView(task);
-                todayTasksContainer.addView(taskView);
-                hasTodayTasks = true;
-            } else if (task.getDate().isAfter(today)) {
-                // Add date header if this is a new date group
-                if (lastFutureDate == null || !lastFutureDate.equals(task.getDate())) {
-                    TextView dateHeader = new TextView(this);
-                    dateHeader.setText(task.getDate().format(dateFormat));
-                    dateHeader.setTextSize(18);
-                    dateHeader.setTextColor(ContextCompat.getColor(this, R.color.primary_blue));
-                    dateHeader.setPadding(0, 16, 0, 8);
-                    futureTasksContainer.addView(dateHeader);
-                    lastFutureDate = task.getDate();
-                }
-                View taskView = createTaskView(task);
-                futureTasksContainer.addView(taskView);
-                hasFutureTasks = true;
+            // Add date header if this is a new date group
+            if (lastDate == null || !lastDate.equals(task.getDate())) {
+                items.add(TaskListItem.dateHeader(task.getDate(), formatter));
+                lastDate = task.getDate();
             }
-        }
-        if (todayTasksHeader != null) {
-            todayTasksHeader.setVisibility(hasTodayTasks ? View.VISIBLE : View.GONE);
-        }
-        if (futureTasksHeader != null) {
-            futureTasksHeader.setVisibility(hasFutureTasks ? View.VISIBLE : View.GONE);
-        }
-        
-        // Show/hide empty states
-        updateEmptyStates(hasTodayTasks || hasFutureTasks);
-
-        if (tabLayout != null && tabLayout.getSelectedTabPosition() == 0) {
-            refreshLogList();
+            items.add(TaskListItem.task(task, formatter));
         }
     }
-    
-    private void updateEmptyStates(boolean hasAnyTasks) {
-        // Remove existing empty state from containers
-        todayTasksContainer.removeView(mainEmptyState);
-        futureTasksContainer.removeView(mainEmptyState);
-        
-        // Add empty state view if no tasks exist at all
-        if (!hasAnyTasks) {
-            todayTasksContainer.addView(mainEmptyState);
-        }
+
+    @Override
+    public void onTaskChecked(@NonNull Task task, boolean isChecked) {
+        // Write a copy: the original belongs to the current snapshot that observers compare against.
+        // Rapid toggles are coalesced and committed together.
+        Task current = taskRepository.getPendingOrSame(task);
+        Task updated = new Task(current);
+        updated.setCompleted(isChecked);
+        taskRepository.updateDeferred(current, updated);
     }
 
-    @NonNull
-    private View createTaskView(@NonNull Task task) {
-        // Inflate the reusable task item layout instead of creating the view programmatically
-        LayoutInflater inflater = LayoutInflater.from(this);
-        LinearLayout taskLayout = (LinearLayout) inflater.inflate(R.layout.item_task, null);
-
-        // Bind views
-        CheckBox checkBox = taskLayout.findViewById(R.id.taskCheckBox);
-        TextView taskNameText = taskLayout.findViewById(R.id.taskNameText);
-        TextView taskDateText = taskLayout.findViewById(R.id.taskDateText);
-        Button editButton = taskLayout.findViewById(R.id.editButton);
-        Button deleteButton = taskLayout.findViewById(R.id.deleteButton);
-
-        // Initialise values
-        taskNameText.setText(task.getName());
-        taskDateText.setText(task.getDate().format(dateFormat));
-
-        // Checkbox behaviour
-        checkBox.setChecked(task.isCompleted());
-        checkBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            task.setCompleted(isChecked);
-            updateTaskAppearance(taskLayout, task);
-            taskDao.update(task);
-        });
+    @Override
+    public void onDateLongClick(@NonNull LocalDate date) {
+        String[] actions = {
+                getString(R.string.complete_all_on_date),
+                getString(R.string.move_all_to_date)
+        };
+        new AlertDialog.Builder(this)
+                .setTitle(date.format(dateFormat))
+                .setItems(actions, (dialog, which) -> {
+                    if (which == 0) {
+                        taskRepository.completeAllOn(date, null);
+                    } else {
+                        pickTargetDate(target -> taskRepository.moveAll(date, target, null));
+                    }
+                })
+                .show();
+    }
 
-        // Edit button behaviour
-        editButton.setOnClickListener(v -> showEditDialog(task));
-
-        // Delete button behaviour
-        deleteButton.setOnClickListener(v -> {
-            AlertDialog deleteDialog = new AlertDialog.Builder(this)
-                    .setTitle(R.string.delete_task_title)
-                    .setMessage(getString(R.string.delete_task_confirmation) + " \"" + task.getName() + "\"?")
-                    .setPositiveButton(R.string.delete_text, (dialog, which) -> {
-                        tasks.remove(task);
-                        taskDao.delete(task);
-                        if (tabLayout != null && tabLayout.getSelectedTabPosition() == 0) {
-                            refreshTaskLists();
-                        } else {
-                            refreshLogList();
-                        }
-                    })
-                    .setNegativeButton(android.R.string.cancel, null)
-                    .create();
-            
-            deleteDialog.show();
-            
-            // Set delete button text color to red
-            deleteDialog.getButton(AlertDialog.BUTTON_POSITIVE)
-                    .setTextColor(ContextCompat.getColor(this, R.color.delete_red));
-        });
+    private void pickTargetDate(@NonNull TaskRepository.Callback<LocalDate> onPicked) {
+        LocalDate today = dayBoundaryScheduler.today();
+        DatePickerDialog datePickerDialog = new DatePickerDialog(
+                this,
+                (DatePicker view, int year, int month, int dayOfMonth) ->
+                        onPicked.onComplete(LocalDate.of(year, month + 1, dayOfMonth)),
+                today.getYear(),
+                today.getMonthValue() - 1,
+                today.getDayOfMonth()
+        );
 
-        // Apply strikethrough / alpha styling depending on completion status
-        updateTaskAppearance(taskLayout, task);
+        // Set minimum date to today (prevent selecting past dates)
+        datePickerDialog.getDatePicker().setMinDate(System.currentTimeMillis());
 
-        return taskLayout;
+        datePickerDialog.show();
     }
 
-    private void updateTaskAppearance(@NonNull LinearLayout taskLayout, @NonNull Task task) {
-        LinearLayout textLayout = (LinearLayout) taskLayout.getChildAt(1);
-        TextView taskNameText = (TextView) textLayout.getChildAt(0);
-        TextView taskDateText = (TextView) textLayout.getChildAt(1);
+    @Override
+    public void onEditTask(@NonNull Task task) {
+        showEditDialog(task);
+    }
 
-        if (task.isCompleted()) {
-            taskNameText.setPaintFlags(taskNameText.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
-            taskDateText.setPaintFlags(taskDateText.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
-            taskNameText.setAlpha(0.6f);
-            taskDateText.setAlpha(0.6f);
-        } else {
-            taskNameText.setPaintFlags(taskNameText.getPaintFlags() & (~Paint.STRIKE_THRU_TEXT_FLAG));
-            taskDateText.setPaintFlags(taskDateText.getPaintFlags() & (~Paint.STRIKE_THRU_TEXT_FLAG));
-            taskNameText.setAlpha(1.0f);
-            taskDateText.setAlpha(1.0f);
+    // Deletes are soft, so there is no confirmation: the snackbar offers Undo instead
+    @Override
+    public void onDeleteTask(@NonNull Task task) {
+        if (task.getRuleId() == null) {
+            deleteTask(task);
+            return;
         }
+        String[] choices = {getString(R.string.delete_occurrence), getString(R.string.stop_repeating)};
+        new AlertDialog.Builder(this)
+                .setTitle(task.getName())
+                .setItems(choices, (dialog, which) -> {
+                    if (which == 0) {
+                        deleteTask(task);
+                    } else {
+                        stopSeries(task);
+                    }
+                })
+                .show();
+    }
+
+    private void deleteTask(@NonNull Task task) {
+        taskRepository.delete(task, null);
+        showUndoSnackbar(getString(R.string.task_deleted), () -> taskRepository.restore(task, null));
+    }
+
+    private void stopSeries(@NonNull Task occurrence) {
+        long deletedAt = System.currentTimeMillis();
+        taskRepository.stopSeries(occurrence, deletedAt, rule -> {
+            if (rule == null) return;
+            showUndoSnackbar(getString(R.string.series_stopped),
+                    () -> taskRepository.resumeSeries(rule, deletedAt, null));
+        });
+    }
+
+    private void showUndoSnackbar(@NonNull CharSequence message, @NonNull Runnable undo) {
+        Snackbar.make(findViewById(android.R.id.content), message, Snackbar.LENGTH_LONG)
+                .setAction(R.string.undo, v -> undo.run())
+                .show();
     }
 
     private void showEditDialog(@NonNull Task task) {
@@ -331,21 +906,19 @@ public class MainActivity extends AppCompatActivity {
         saveButton.setOnClickListener(v -> {
             String newTaskName = editTaskName.getText().toString().trim();
             if (!newTaskName.isEmpty()) {
-                task.setName(newTaskName);
-
                 LocalDate newDate = LocalDate.of(
                         editDatePicker.getYear(),
                         editDatePicker.getMonth() + 1,
                         editDatePicker.getDayOfMonth()
                 );
-                task.setDate(newDate);
 
-                taskDao.update(task);
-                if (tabLayout != null && tabLayout.getSelectedTabPosition() == 0) {
-                    refreshTaskLists();
-                } else {
-                    refreshLogList();
-                }
+                // Observers pick up the change, including a move to another section. Queued like a
+                // toggle, so an edit right after checking the task off is written together with it.
+                Task current = taskRepository.getPendingOrSame(task);
+                Task updated = new Task(current);
+                updated.setName(newTaskName);
+                updated.setDate(newDate);
+                taskRepository.updateDeferred(current, updated);
                 editDialog.dismiss();
             }
         });
@@ -359,27 +932,11 @@ public class MainActivity extends AppCompatActivity {
                 boolean isMain = (tab.getPosition() == 0);
 
                 // Toggle visibility of sections
-                addTaskSection.setVisibility(isMain ? View.VISIBLE : View.GONE);
-                todayTasksContainer.setVisibility(isMain ? View.VISIBLE : View.GONE);
-                futureTasksContainer.setVisibility(isMain ? View.VISIBLE : View.GONE);
-                logContainer.setVisibility(isMain ? View.GONE : View.VISIBLE);
-                
-                // Remove empty states from containers when switching tabs to prevent duplication
-                if (!isMain) {
-                    todayTasksContainer.removeView(mainEmptyState);
-                    futureTasksContainer.removeView(mainEmptyState);
-                } else {
-                    logContainer.removeView(historyEmptyState);
-                }
+                updateListVisibility();
 
-                if (isMain) {
-                    // Ensure headers show/hide correctly based on current tasks
-                    refreshTaskLists();
-                } else {
-                    // Always hide headers in History tab
-                    findViewById(R.id.todayTasksHeader).setVisibility(View.GONE);
-                    findViewById(R.id.futureTasksHeader).setVisibility(View.GONE);
-                    refreshLogList();
+                // Main is kept current by its observers; History only reloads if a write happened
+                if (!isMain && historyStale) {
+                    loadHistory();
                 }
             }
 
@@ -388,38 +945,5 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
-    private void refreshLogList() {
-        if (logContainer == null) return;
-        logContainer.removeAllViews();
-
-        LocalDate today = LocalDate.now();
-
-        java.util.Map<java.time.LocalDate, java.util.List<Task>> map = new java.util.TreeMap<>((d1, d2) -> d2.compareTo(d1));
-        for (Task task : tasks) {
-            if (task.getDate().isBefore(today)) { // Only past tasks
-                map.computeIfAbsent(task.getDate(), k -> new java.util.ArrayList<>()).add(task);
-            }
-        }
-
-        if (map.isEmpty()) {
-            // Show empty state for history
-            logContainer.addView(historyEmptyState);
-        } else {
-            for (java.util.Map.Entry<java.time.LocalDate, java.util.List<Task>> entry : map.entrySet()) {
-                TextView dateHeader = new TextView(this);
-                dateHeader.setText(entry.getKey().format(dateFormat));
-                dateHeader.setTextSize(18);
-                dateHeader.setTextColor(ContextCompat.getColor(this, R.color.primary_blue));
-                dateHeader.setPadding(0, 16, 0, 8);
-                logContainer.addView(dateHeader);
-
-                for (Task task : entry.getValue()) {
-                    View taskView = createTaskView(task);
-                    logContainer.addView(taskView);
-                }
-            }
-        }
-    }
-
     // Room handles DB closing automatically; nothing to close
-}
\ No newline at end of file
+}
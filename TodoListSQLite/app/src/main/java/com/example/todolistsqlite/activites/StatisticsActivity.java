@@ -0,0 +1,66 @@
+package com.example.todolistsqlite.activites;
+
+import android.os.Bundle;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.models.CompletionStats;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Completion rate per day and per week, and streaks, all read from the daily_summary table
+public class StatisticsActivity extends AppCompatActivity {
+    private static final int DAYS_SHOWN = 14;
+    private static final int WEEKS_SHOWN = 8;
+
+    private TextView streakText;
+    private TextView dailyText;
+    private TextView weeklyText;
+    private DateTimeFormatter dateFormat;
+    private TaskRepository taskRepository;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_statistics);
+
+        taskRepository = TaskRepository.getInstance(this);
+        dateFormat = DateTimeFormatter.ofPattern("dd MMM, yyyy");
+        streakText = findViewById(R.id.streakText);
+        dailyText = findViewById(R.id.dailyStatsText);
+        weeklyText = findViewById(R.id.weeklyStatsText);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        taskRepository.getCompletionStats(LocalDate.now(), DAYS_SHOWN, WEEKS_SHOWN, this::showStats);
+    }
+
+    private void showStats(CompletionStats stats) {
+        streakText.setText(getString(R.string.stats_streaks, stats.getCurrentStreak(), stats.getLongestStreak()));
+        dailyText.setText(formatRows(stats.getDays(), R.string.stats_empty_days));
+        weeklyText.setText(formatRows(stats.getWeeks(), R.string.stats_empty_weeks));
+    }
+
+    // One line per day or week, newest first
+    private String formatRows(List<DailySummary> rows, int emptyRes) {
+        if (rows.isEmpty()) {
+            return getString(emptyRes);
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            DailySummary row = rows.get(i);
+            if (text.length() > 0) text.append('\n');
+            text.append(getString(R.string.stats_row, row.getDate().format(dateFormat),
+                    row.getCompleted(), row.getTotal(), Math.round(row.getCompletionRate() * 100)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.todolistsqlite.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.metrics.RenderMetrics;
+import com.example.todolistsqlite.models.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Sectioned task list. Diffs are computed on a background thread by {@link ListAdapter},
+ * so a single changed task rebinds a single row.
+ */
+public class TaskListAdapter extends ListAdapter<TaskListItem, RecyclerView.ViewHolder> {
+
+    public interface OnTaskActionListener {
+        void onTaskChecked(@NonNull Task task, boolean isChecked);
+        void onEditTask(@NonNull Task task);
+        void onDeleteTask(@NonNull Task task);
+        // Long-press on a header that stands for one date, for the bulk actions on that date
+        void onDateLongClick(@NonNull LocalDate date);
+    }
+
+    private static final DiffUtil.ItemCallback<TaskListItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<TaskListItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
+            return oldItem.isSameItem(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
+            return oldItem.hasSameContents(newItem);
+        }
+    };
+
+    private final TaskRowFormatter formatter;
+    private final OnTaskActionListener listener;
+    // Latest TaskRowPipeline build for this adapter; main thread only
+    int rowGeneration;
+
+    public TaskListAdapter(@NonNull TaskRowFormatter formatter, @NonNull OnTaskActionListener listener) {
+        super(DIFF_CALLBACK);
+        this.formatter = formatter;
+        this.listener = listener;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).getType();
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        long start = RenderMetrics.begin(RenderMetrics.CREATE_VIEW_HOLDER);
+        try {
+            return inflateViewHolder(parent, viewType);
+        } finally {
+            RenderMetrics.end(RenderMetrics.CREATE_VIEW_HOLDER, start);
+        }
+    }
+
+    @NonNull
+    private RecyclerView.ViewHolder inflateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        switch (viewType) {
+            case TaskListItem.TYPE_SECTION_HEADER:
+                return new HeaderViewHolder(inflater.inflate(R.layout.item_section_header, parent, false));
+            case TaskListItem.TYPE_DATE_HEADER:
+                return new HeaderViewHolder(inflater.inflate(R.layout.item_date_header, parent, false));
+            case TaskListItem.TYPE_EMPTY:
+                return new EmptyViewHolder(inflater.inflate(R.layout.empty_state_view, parent, false));
+            default:
+                return new TaskViewHolder(inflater.inflate(R.layout.item_task, parent, false));
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        long start = RenderMetrics.begin(RenderMetrics.BIND_VIEW_HOLDER);
+        try {
+            bindItem(holder, getItem(position));
+        } finally {
+            RenderMetrics.end(RenderMetrics.BIND_VIEW_HOLDER, start);
+        }
+    }
+
+    private void bindItem(@NonNull RecyclerView.ViewHolder holder, @NonNull TaskListItem item) {
+        switch (item.getType()) {
+            case TaskListItem.TYPE_SECTION_HEADER:
+            case TaskListItem.TYPE_DATE_HEADER:
+                ((HeaderViewHolder) holder).titleText.setText(item.getText());
+                bindDateLongClick(holder, item.getDate());
+                break;
+            case TaskListItem.TYPE_EMPTY:
+                ((EmptyViewHolder) holder).bind(item);
+                break;
+            default:
+                ((TaskViewHolder) holder).bind(item);
+                break;
+        }
+    }
+
+    private void bindDateLongClick(@NonNull RecyclerView.ViewHolder holder, LocalDate date) {
+        if (date == null) {
+            holder.itemView.setOnLongClickListener(null);
+            holder.itemView.setLongClickable(false);
+            return;
+        }
+        holder.itemView.setOnLongClickListener(v -> {
+            listener.onDateLongClick(date);
+            return true;
+        });
+    }
+
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        final TextView titleText;
+
+        HeaderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            titleText = (TextView) itemView;
+        }
+    }
+
+    static class EmptyViewHolder extends RecyclerView.ViewHolder {
+        private final TextView titleText;
+        private final TextView messageText;
+
+        EmptyViewHolder(@NonNull View itemView) {
+            super(itemView);
+            titleText = itemView.findViewById(R.id.emptyStateTitle);
+            messageText = itemView.findViewById(R.id.emptyStateMessage);
+        }
+
+        void bind(@NonNull TaskListItem item) {
+            titleText.setText(item.getTitleRes());
+            if (item.getMessageRes() != 0) {
+                messageText.setText(item.getMessageRes());
+            } else {
+                messageText.setText("");
+            }
+        }
+    }
+
+    class TaskViewHolder extends RecyclerView.ViewHolder {
+        private final CheckBox checkBox;
+        private final TextView taskNameText;
+        private final TextView taskDateText;
+        private final Button editButton;
+        private final Button deleteButton;
+        // Whether precomputed names were laid out with this view's text metrics
+        private final boolean precomputedNameFits;
+
+        TaskViewHolder(@NonNull View itemView) {
+            super(itemView);
+            checkBox = itemView.findViewById(R.id.taskCheckBox);
+            taskNameText = itemView.findViewById(R.id.taskNameText);
+            taskDateText = itemView.findViewById(R.id.taskDateText);
+            editButton = itemView.findViewById(R.id.editButton);
+            deleteButton = itemView.findViewById(R.id.deleteButton);
+            precomputedNameFits = formatter.matchesNameView(taskNameText);
+        }
+
+        void bind(@NonNull TaskListItem item) {
+            Task task = item.getTask();
+            // Text, layout and strike-through were prepared off the main thread; only assign here
+            CharSequence name = item.getText();
+            if (precomputedNameFits && name instanceof PrecomputedTextCompat) {
+                TextViewCompat.setPrecomputedText(taskNameText, (PrecomputedTextCompat) name);
+            } else {
+                taskNameText.setText(name);
+            }
+            taskDateText.setText(item.getDateText());
+            setCompletedAlpha(item.isCompleted());
+
+            // Clear the recycled listener before restoring state so it doesn't fire for the old task
+            checkBox.setOnCheckedChangeListener(null);
+            checkBox.setChecked(item.isCompleted());
+            checkBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
+                // Immediate feedback; the rebuilt row replaces this once the write lands
+                taskNameText.setText(TaskRowFormatter.struckThrough(item.getName(), isChecked));
+                taskDateText.setText(formatter.taskDate(item.getDate(), isChecked));
+                setCompletedAlpha(isChecked);
+                listener.onTaskChecked(task, isChecked);
+            });
+
+            editButton.setOnClickListener(v -> listener.onEditTask(task));
+            deleteButton.setOnClickListener(v -> listener.onDeleteTask(task));
+        }
+
+        // Strike-through is a span in the prepared text, so only the alpha changes here
+        private void setCompletedAlpha(boolean completed) {
+            float alpha = completed ? 0.6f : 1.0f;
+            taskNameText.setAlpha(alpha);
+            taskDateText.setAlpha(alpha);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.todolistsqlite.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
+
+import com.example.todolistsqlite.models.Task;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One row of a sectioned task list: a section header, a date header, an empty state or a task.
+ * Task rows copy the fields they display so DiffUtil can tell when a shared {@link Task} changed.
+ * Display text is produced up front by a {@link TaskRowFormatter}, normally off the main thread.
+ */
+public class TaskListItem {
+    public static final int TYPE_SECTION_HEADER = 0;
+    public static final int TYPE_DATE_HEADER = 1;
+    public static final int TYPE_TASK = 2;
+    public static final int TYPE_EMPTY = 3;
+
+    private final int type;
+    @StringRes private final int titleRes;
+    @StringRes private final int messageRes;
+    private final LocalDate date;
+    private final Task task;
+    private final String name;
+    private final boolean completed;
+    // Section headers only: completed out of total tasks in the section
+    private final int doneCount;
+    private final int totalCount;
+    // Ready to bind: header label or task name, and a task's date line
+    private final CharSequence text;
+    private final CharSequence dateText;
+
+    private TaskListItem(int type, int titleRes, int messageRes, LocalDate date, Task task) {
+        this(type, titleRes, messageRes, date, task, 0, 0, null, null);
+    }
+
+    private TaskListItem(int type, int titleRes, int messageRes, LocalDate date, Task task,
+                         int doneCount, int totalCount, CharSequence text, CharSequence dateText) {
+        this.type = type;
+        this.titleRes = titleRes;
+        this.messageRes = messageRes;
+        this.date = date;
+        this.task = task;
+        this.name = task != null ? task.getName() : null;
+        this.completed = task != null && task.isCompleted();
+        this.doneCount = doneCount;
+        this.totalCount = totalCount;
+        this.text = text;
+        this.dateText = dateText;
+    }
+
+    public static TaskListItem sectionHeader(@StringRes int titleRes, int doneCount, int totalCount,
+                                             @NonNull TaskRowFormatter formatter) {
+        return new TaskListItem(TYPE_SECTION_HEADER, titleRes, 0, null, null, doneCount, totalCount,
+                formatter.sectionTitle(titleRes, doneCount, totalCount), null);
+    }
+
+    // A section header that stands for a single date, e.g. Today
+    public static TaskListItem sectionHeader(@StringRes int titleRes, @NonNull LocalDate date,
+                                             int doneCount, int totalCount, @NonNull TaskRowFormatter formatter) {
+        return new TaskListItem(TYPE_SECTION_HEADER, titleRes, 0, date, null, doneCount, totalCount,
+                formatter.sectionTitle(titleRes, doneCount, totalCount), null);
+    }
+
+    // A header with its text already formatted, e.g. a note above search results
+    public static TaskListItem sectionHeader(@StringRes int titleRes, @NonNull CharSequence text) {
+        return new TaskListItem(TYPE_SECTION_HEADER, titleRes, 0, null, null, 0, 0, text, null);
+    }
+
+    public static TaskListItem dateHeader(@NonNull LocalDate date, @NonNull TaskRowFormatter formatter) {
+        return new TaskListItem(TYPE_DATE_HEADER, 0, 0, date, null, 0, 0, formatter.formatDate(date), null);
+    }
+
+    public static TaskListItem task(@NonNull Task task, @NonNull TaskRowFormatter formatter) {
+        return new TaskListItem(TYPE_TASK, 0, 0, task.getDate(), task, 0, 0,
+                formatter.precomputeName(task.getName(), task.isCompleted()),
+                formatter.taskDate(task.getDate(), task.isCompleted()));
+    }
+
+    // messageRes may be 0 when the empty state only has a title
+    public static TaskListItem empty(@StringRes int titleRes, @StringRes int messageRes) {
+        return new TaskListItem(TYPE_EMPTY, titleRes, messageRes, null, null);
+    }
+
+    public int getType() {
+        return type;
+    }
+    public int getTitleRes() {
+        return titleRes;
+    }
+    public int getMessageRes() {
+        return messageRes;
+    }
+    public LocalDate getDate() {
+        return date;
+    }
+    public Task getTask() {
+        return task;
+    }
+    public String getName() {
+        return name;
+    }
+    public boolean isCompleted() {
+        return completed;
+    }
+    public int getDoneCount() {
+        return doneCount;
+    }
+    public int getTotalCount() {
+        return totalCount;
+    }
+    public CharSequence getText() {
+        return text;
+    }
+    public CharSequence getDateText() {
+        return dateText;
+    }
+
+    boolean isSameItem(@NonNull TaskListItem other) {
+        if (type != other.type) return false;
+        switch (type) {
+            case TYPE_TASK:
+                return task.getId() == other.task.getId();
+            case TYPE_DATE_HEADER:
+                return date.equals(other.date);
+            default:
+                return titleRes == other.titleRes;
+        }
+    }
+
+    boolean hasSameContents(@NonNull TaskListItem other) {
+        return titleRes == other.titleRes
+                && messageRes == other.messageRes
+                && completed == other.completed
+                && doneCount == other.doneCount
+                && totalCount == other.totalCount
+                && Objects.equals(date, other.date)
+                && Objects.equals(name, other.name);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.todolistsqlite.adapters;
+
+import android.content.Context;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.StrikethroughSpan;
+import android.util.LruCache;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import com.example.todolistsqlite.R;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Produces the text a row displays, ready to assign: date labels cached per {@link LocalDate},
+ * strike-through as a span instead of a paint flag, and task names laid out ahead of time with
+ * {@link PrecomputedTextCompat}. Safe to call from any thread.
+ */
+public class TaskRowFormatter {
+    private static final int DATE_CACHE_SIZE = 512;
+
+    private final Context context;
+    private final DateTimeFormatter dateFormat;
+    private final PrecomputedTextCompat.Params nameParams;
+    private final LruCache<LocalDate, String> dateLabels = new LruCache<>(DATE_CACHE_SIZE);
+
+    private TaskRowFormatter(Context context, DateTimeFormatter dateFormat, PrecomputedTextCompat.Params nameParams) {
+        this.context = context;
+        this.dateFormat = dateFormat;
+        this.nameParams = nameParams;
+    }
+
+    /**
+     * Reads the name text metrics from one inflated task row, so precomputed names match what
+     * {@link TaskListAdapter} binds them to. Call on the main thread with the list they are for.
+     */
+    @NonNull
+    public static TaskRowFormatter create(@NonNull ViewGroup parent, @NonNull DateTimeFormatter dateFormat) {
+        View prototype = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_task, parent, false);
+        TextView nameText = prototype.findViewById(R.id.taskNameText);
+        return new TaskRowFormatter(parent.getContext().getApplicationContext(), dateFormat,
+                TextViewCompat.getTextMetricsParams(nameText));
+    }
+
+    @NonNull
+    public String formatDate(@NonNull LocalDate date) {
+        String label = dateLabels.get(date);
+        if (label == null) {
+            label = date.format(dateFormat);
+            dateLabels.put(date, label);
+        }
+        return label;
+    }
+
+    // Section title with its progress, e.g. "Today's Tasks · 3/7 done"
+    @NonNull
+    public String sectionTitle(@StringRes int titleRes, int doneCount, int totalCount) {
+        return context.getString(R.string.section_progress, context.getString(titleRes), doneCount, totalCount);
+    }
+
+    // Laid out for the task name view; falls back to plain text for views with other metrics
+    @NonNull
+    public CharSequence precomputeName(@Nullable String name, boolean completed) {
+        return PrecomputedTextCompat.create(struckThrough(name, completed), nameParams);
+    }
+
+    @NonNull
+    public CharSequence taskDate(@NonNull LocalDate date, boolean completed) {
+        return struckThrough(formatDate(date), completed);
+    }
+
+    @NonNull
+    static CharSequence struckThrough(@Nullable String text, boolean completed) {
+        if (text == null) text = "";
+        if (!completed) return text;
+        SpannableString spannable = new SpannableString(text);
+        spannable.setSpan(new StrikethroughSpan(), 0, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        return spannable;
+    }
+
+    boolean matchesNameView(@NonNull TextView textView) {
+        return nameParams.equals(TextViewCompat.getTextMetricsParams(textView));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.todolistsqlite.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.example.todolistsqlite.metrics.RenderMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds list rows, including their formatted and precomputed text, on a background thread and
+ * submits them to the adapter on the main thread. Builds run in order; a build that finishes after
+ * a newer one was requested for the same adapter is dropped.
+ */
+public class TaskRowPipeline {
+    public interface RowBuilder {
+        // Runs on the pipeline thread: only read the snapshots captured when submitting
+        void build(@NonNull List<TaskListItem> items, @NonNull TaskRowFormatter formatter);
+    }
+
+    private final TaskRowFormatter formatter;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public TaskRowPipeline(@NonNull TaskRowFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @NonNull
+    public TaskRowFormatter getFormatter() {
+        return formatter;
+    }
+
+    // Call on the main thread; section names the RenderMetrics counter for the build.
+    // Does nothing once shut down, as callbacks can still arrive after the activity is destroyed.
+    public void submit(@NonNull TaskListAdapter adapter, @NonNull String section, @NonNull RowBuilder builder) {
+        if (executor.isShutdown()) return;
+        int generation = ++adapter.rowGeneration;
+        executor.execute(() -> {
+            long start = RenderMetrics.begin(section);
+            List<TaskListItem> items = new ArrayList<>();
+            builder.build(items, formatter);
+            RenderMetrics.end(section, start);
+            mainHandler.post(() -> {
+                if (generation == adapter.rowGeneration) {
+                    adapter.submitList(items);
+                }
+            });
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.todolistsqlite.backup;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+public enum BackupFormat {
+    // One JSON object per line after {"format":2}: series, then
+    // {"id":1,"name":"...","date":"2026-10-18","completed":false} with the series fields for occurrences
+    JSON_LINES(".jsonl", "application/x-ndjson"),
+    // RFC 4180 with a header row: kind,id,name,date,completed,rule_id,occurrence_date,deleted,
+    // frequency,interval,end_date. Version 1 files (id,name,date,completed) still import.
+    CSV(".csv", "text/csv");
+
+    private final String extension;
+    private final String mimeType;
+
+    BackupFormat(String extension, String mimeType) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+    }
+
+    @NonNull
+    public String getExtension() {
+        return extension;
+    }
+
+    @NonNull
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    // Picks the format by file name; anything that isn't .csv is read as JSON Lines
+    @NonNull
+    public static BackupFormat fromFileName(@NonNull String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(CSV.extension) ? CSV : JSON_LINES;
+    }
+}
@@ -0,0 +1,474 @@
+package com.example.todolistsqlite.backup;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.Task;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams tasks to and from JSON Lines or CSV. Export reads the table in keyset pages of
+ * {@link #BATCH_SIZE} rows through a cursor and writes each row as it is read; import parses one
+ * record at a time and inserts every {@link #BATCH_SIZE} records in one transaction. Memory use
+ * does not grow with the number of tasks.
+ *
+ * <p>Since format {@link #FORMAT_VERSION} 2, recurring series are written first, one record each,
+ * and the rows saved for their occurrences carry the series id and occurrence date. Deleted
+ * occurrences are written too, flagged as deleted, since they keep the series from showing them.
+ * Version 1 files, tasks only, still import.
+ *
+ * <p>Imported tasks and series are added as new rows: ids in the file are not reused, so
+ * importing into a database that already has tasks never overwrites them. Import stops at the
+ * first malformed record; batches before it stay committed.
+ */
+public final class TaskBackup {
+    public static final int BATCH_SIZE = 1_000;
+    public static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Version 1 had only id,name,date,completed; version 2 leads with the kind of record
+    private static final String CSV_HEADER =
+            "kind,id,name,date,completed,rule_id,occurrence_date,deleted,frequency,interval,end_date";
+    private static final int CSV_V1_FIELDS = 4;
+    private static final int CSV_FIELDS = 11;
+    private static final String KIND_TASK = "task";
+    private static final String KIND_RULE = "rule";
+
+    public interface ProgressListener {
+        // Called after every batch and once at the end. fraction is 0..1, or -1 when unknown.
+        void onProgress(long records, float fraction);
+    }
+
+    private TaskBackup() {}
+
+    public static long export(@NonNull TaskDao dao, @NonNull Path file, @NonNull BackupFormat format,
+                              @Nullable ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return export(dao, channel, format, listener);
+        }
+    }
+
+    /**
+     * Writes every series, then every task in id order, archived ones included. Returns the
+     * number of records written. The channel is flushed but left open.
+     */
+    public static long export(@NonNull TaskDao dao, @NonNull WritableByteChannel channel,
+                              @NonNull BackupFormat format, @Nullable ProgressListener listener) throws IOException {
+        // Series are few and small, so they are read in one go
+        List<RecurrenceRule> rules = dao.getAllRules();
+        int total = rules.size() + dao.count() + dao.countArchived();
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1),
+                BUFFER_SIZE);
+        if (format == BackupFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        } else {
+            writer.write("{\"format\":" + FORMAT_VERSION + "}\n");
+        }
+        for (RecurrenceRule rule : rules) {
+            if (format == BackupFormat.CSV) {
+                writeCsvRule(writer, rule);
+            } else {
+                writeJsonRule(writer, rule);
+            }
+        }
+
+        long written = rules.size();
+        long afterId = 0;
+        while (true) {
+            int rows = 0;
+            try (Cursor cursor = dao.exportPage(afterId, BATCH_SIZE)) {
+                int idColumn = cursor.getColumnIndexOrThrow("id");
+                int nameColumn = cursor.getColumnIndexOrThrow("name");
+                int dateColumn = cursor.getColumnIndexOrThrow("date");
+                int completedColumn = cursor.getColumnIndexOrThrow("completed");
+                int ruleIdColumn = cursor.getColumnIndexOrThrow("rule_id");
+                int occurrenceDateColumn = cursor.getColumnIndexOrThrow("occurrence_date");
+                int deletedColumn = cursor.getColumnIndexOrThrow("deleted");
+                while (cursor.moveToNext()) {
+                    afterId = cursor.getLong(idColumn);
+                    Task task = new Task(afterId, cursor.isNull(nameColumn) ? null : cursor.getString(nameColumn),
+                            cursor.isNull(dateColumn) ? null : LocalDate.ofEpochDay(cursor.getLong(dateColumn)),
+                            cursor.getInt(completedColumn) != 0);
+                    if (!cursor.isNull(ruleIdColumn)) {
+                        task.setRuleId(cursor.getLong(ruleIdColumn));
+                        task.setOccurrenceDate(LocalDate.ofEpochDay(cursor.getLong(occurrenceDateColumn)));
+                    }
+                    boolean deleted = cursor.getInt(deletedColumn) != 0;
+                    if (format == BackupFormat.CSV) {
+                        writeCsv(writer, task, deleted);
+                    } else {
+                        writeJson(writer, task, deleted);
+                    }
+                    rows++;
+                }
+            }
+            written += rows;
+            if (listener != null) {
+                listener.onProgress(written, total > 0 ? Math.min(1f, (float) written / total) : 1f);
+            }
+            if (rows < BATCH_SIZE) break;
+        }
+        writer.flush();
+        return written;
+    }
+
+    public static long importTasks(@NonNull TaskDao dao, @NonNull Path file, @NonNull BackupFormat format,
+                                   @Nullable ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importTasks(dao, channel, channel.size(), format, listener);
+        }
+    }
+
+    /**
+     * Reads series and tasks from the channel and inserts them, tasks in batches. Returns the
+     * number of records imported. size is the number of bytes expected, for progress, or -1 if
+     * unknown. The channel is left open.
+     */
+    public static long importTasks(@NonNull TaskDao dao, @NonNull ReadableByteChannel channel, long size,
+                                   @NonNull BackupFormat format, @Nullable ProgressListener listener) throws IOException {
+        CountingInputStream input = new CountingInputStream(Channels.newInputStream(channel));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        // Series id in the file to the id it was imported under
+        Map<Long, Long> ruleIds = new HashMap<>();
+        // Deleted occurrences come back as tombstones of the import, purged like any other
+        long deletedAt = System.currentTimeMillis();
+        long imported = 0;
+        long record = 0;
+
+        while (true) {
+            Object parsed;
+            if (format == BackupFormat.CSV) {
+                List<String> fields = readCsvRecord(reader);
+                if (fields == null) break;
+                if (fields.size() == 1 && fields.get(0) == null) continue; // Blank line
+                // The header row is optional
+                if (record == 0 && ("id".equals(fields.get(0)) || "kind".equals(fields.get(0)))) {
+                    record++;
+                    continue;
+                }
+                parsed = parseCsv(fields, ++record, deletedAt);
+            } else {
+                String line = reader.readLine();
+                if (line == null) break;
+                if (line.trim().isEmpty()) continue;
+                parsed = parseJson(line, ++record, deletedAt);
+                if (parsed == null) continue; // Format line
+            }
+            if (parsed instanceof RecurrenceRule) {
+                RecurrenceRule rule = (RecurrenceRule) parsed;
+                long fileId = rule.getId();
+                rule.setId(0);
+                ruleIds.put(fileId, dao.insertRule(rule));
+                imported++;
+                continue;
+            }
+            Task task = (Task) parsed;
+            if (task.getRuleId() != null) {
+                Long ruleId = ruleIds.get(task.getRuleId());
+                if (ruleId == null) {
+                    throw new IOException("Invalid task in record " + record + ": unknown series " + task.getRuleId());
+                }
+                task.setRuleId(ruleId);
+            }
+            batch.add(task);
+            if (batch.size() == BATCH_SIZE) {
+                imported += insertBatch(dao, batch);
+                reportImport(listener, imported, input.getCount(), size);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += insertBatch(dao, batch);
+        }
+        reportImport(listener, imported, size, size);
+        return imported;
+    }
+
+    // Room runs a list insert in a single transaction
+    private static int insertBatch(TaskDao dao, List<Task> batch) {
+        int count = dao.insertAll(batch).size();
+        batch.clear();
+        return count;
+    }
+
+    private static void reportImport(ProgressListener listener, long imported, long bytesRead, long size) {
+        if (listener != null) {
+            listener.onProgress(imported, size > 0 ? Math.min(1f, (float) bytesRead / size) : -1f);
+        }
+    }
+
+    /* JSON Lines */
+
+    // {"id":1,"name":"...","date":"2026-10-18","completed":false}, plus "rule_id", "occurrence_date"
+    // and "deleted" for a row saved for an occurrence of a series
+    private static void writeJson(Writer writer, Task task, boolean deleted) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(Long.toString(task.getId()));
+        writer.write(",\"name\":");
+        writer.write(task.getName() != null ? JSONObject.quote(task.getName()) : "null");
+        writer.write(",\"date\":");
+        writer.write(task.getDate() != null ? "\"" + task.getDate() + "\"" : "null");
+        writer.write(",\"completed\":");
+        writer.write(task.isCompleted() ? "true" : "false");
+        if (task.getRuleId() != null) {
+            writer.write(",\"rule_id\":");
+            writer.write(Long.toString(task.getRuleId()));
+            writer.write(",\"occurrence_date\":\"");
+            writer.write(task.getOccurrenceDate().toString());
+            writer.write("\",\"deleted\":");
+            writer.write(deleted ? "true" : "false");
+        }
+        writer.write("}\n");
+    }
+
+    // {"rule":1,"name":"...","frequency":"WEEKLY","interval":1,"start":"2026-10-18","end":null}
+    private static void writeJsonRule(Writer writer, RecurrenceRule rule) throws IOException {
+        writer.write("{\"rule\":");
+        writer.write(Long.toString(rule.getId()));
+        writer.write(",\"name\":");
+        writer.write(rule.getName() != null ? JSONObject.quote(rule.getName()) : "null");
+        writer.write(",\"frequency\":\"");
+        writer.write(rule.getFrequency().name());
+        writer.write("\",\"interval\":");
+        writer.write(Integer.toString(rule.getInterval()));
+        writer.write(",\"start\":\"");
+        writer.write(rule.getStartDate().toString());
+        writer.write("\",\"end\":");
+        writer.write(rule.getEndDate() != null ? "\"" + rule.getEndDate() + "\"" : "null");
+        writer.write("}\n");
+    }
+
+    // A Task, a RecurrenceRule keeping its id from the file, or null for the format line
+    @Nullable
+    private static Object parseJson(String line, long record, long deletedAt) throws IOException {
+        try {
+            JSONObject json = new JSONObject(line);
+            if (json.has("format")) {
+                int version = json.getInt("format");
+                if (version > FORMAT_VERSION) {
+                    throw new IOException("Unsupported backup format " + version);
+                }
+                return null;
+            }
+            String name = json.isNull("name") ? null : json.getString("name");
+            if (json.has("rule")) {
+                return new RecurrenceRule(json.getLong("rule"), name,
+                        RecurrenceRule.Frequency.valueOf(json.getString("frequency")), json.getInt("interval"),
+                        LocalDate.parse(json.getString("start")),
+                        json.isNull("end") ? null : LocalDate.parse(json.getString("end")));
+            }
+            LocalDate date = json.isNull("date") ? null : LocalDate.parse(json.getString("date"));
+            Task task = new Task(0, name, date, json.optBoolean("completed", false));
+            if (json.has("rule_id") && !json.isNull("rule_id")) {
+                task.setRuleId(json.getLong("rule_id"));
+                task.setOccurrenceDate(LocalDate.parse(json.getString("occurrence_date")));
+                if (json.optBoolean("deleted", false)) {
+                    task.setDeletedAt(deletedAt);
+                }
+            }
+            return task;
+        } catch (JSONException | DateTimeParseException | IllegalArgumentException e) {
+            throw new IOException("Invalid task in record " + record + ": " + e.getMessage(), e);
+        }
+    }
+
+    /* CSV */
+
+    // task,id,name,date,completed,rule_id,occurrence_date,deleted,,,
+    private static void writeCsv(Writer writer, Task task, boolean deleted) throws IOException {
+        writer.write(KIND_TASK);
+        writer.write(',');
+        writer.write(Long.toString(task.getId()));
+        writer.write(',');
+        if (task.getName() != null) writeCsvField(writer, task.getName());
+        writer.write(',');
+        if (task.getDate() != null) writer.write(task.getDate().toString());
+        writer.write(',');
+        writer.write(task.isCompleted() ? "true" : "false");
+        writer.write(',');
+        if (task.getRuleId() != null) {
+            writer.write(Long.toString(task.getRuleId()));
+            writer.write(',');
+            writer.write(task.getOccurrenceDate().toString());
+            writer.write(',');
+            writer.write(deleted ? "true" : "false");
+        } else {
+            writer.write(",,");
+        }
+        writer.write(",,,\n");
+    }
+
+    // rule,id,name,start_date,,,,,frequency,interval,end_date
+    private static void writeCsvRule(Writer writer, RecurrenceRule rule) throws IOException {
+        writer.write(KIND_RULE);
+        writer.write(',');
+        writer.write(Long.toString(rule.getId()));
+        writer.write(',');
+        if (rule.getName() != null) writeCsvField(writer, rule.getName());
+        writer.write(',');
+        writer.write(rule.getStartDate().toString());
+        writer.write(",,,,,");
+        writer.write(rule.getFrequency().name());
+        writer.write(',');
+        writer.write(Integer.toString(rule.getInterval()));
+        writer.write(',');
+        if (rule.getEndDate() != null) writer.write(rule.getEndDate().toString());
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        // An empty name is quoted so it reads back as "" rather than null
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Next record's fields, or null at end of input. Quoted fields may span lines.
+    // An empty unquoted field reads as null, an empty quoted one ("") as an empty string.
+    @Nullable
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+        List<String> fields = new ArrayList<>(CSV_FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) throw new IOException("Unterminated quoted field");
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+                fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                field.setLength(0);
+                quoted = false;
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                if (c != ',') return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    // A Task, or a RecurrenceRule keeping its id from the file. Version 1 records have 4 fields.
+    private static Object parseCsv(List<String> fields, long record, long deletedAt) throws IOException {
+        if (fields.size() == CSV_V1_FIELDS) {
+            fields = new ArrayList<>(fields);
+            fields.add(0, KIND_TASK);
+            while (fields.size() < CSV_FIELDS) fields.add(null);
+        }
+        if (fields.size() != CSV_FIELDS) {
+            throw new IOException("Invalid task in record " + record + ": expected " + CSV_FIELDS
+                    + " fields, found " + fields.size());
+        }
+        try {
+            if (KIND_RULE.equals(fields.get(0))) {
+                return new RecurrenceRule(Long.parseLong(required(fields, 1, record)), fields.get(2),
+                        RecurrenceRule.Frequency.valueOf(required(fields, 8, record)),
+                        Integer.parseInt(required(fields, 9, record)), LocalDate.parse(required(fields, 3, record)),
+                        fields.get(10) != null ? LocalDate.parse(fields.get(10)) : null);
+            }
+            if (!KIND_TASK.equals(fields.get(0))) {
+                throw new IOException("Invalid record " + record + ": unknown kind " + fields.get(0));
+            }
+            LocalDate date = fields.get(3) != null ? LocalDate.parse(fields.get(3)) : null;
+            Task task = new Task(0, fields.get(2), date, Boolean.parseBoolean(fields.get(4)));
+            if (fields.get(5) != null) {
+                task.setRuleId(Long.parseLong(fields.get(5)));
+                task.setOccurrenceDate(LocalDate.parse(required(fields, 6, record)));
+                if (Boolean.parseBoolean(fields.get(7))) {
+                    task.setDeletedAt(deletedAt);
+                }
+            }
+            return task;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IOException("Invalid task in record " + record + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String required(List<String> fields, int index, long record) throws IOException {
+        String value = fields.get(index);
+        if (value == null) {
+            throw new IOException("Invalid task in record " + record + ": missing " + CSV_HEADER.split(",")[index]);
+        }
+        return value;
+    }
+
+    // Bytes pulled from the file so far, for import progress
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,26 +1,310 @@
 package com.example.todolistsqlite.dao;
 
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
-import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.example.todolistsqlite.models.BucketCount;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.SearchHit;
 import com.example.todolistsqlite.models.Task;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Dao
 public interface TaskDao {
-    @Query("SELECT * FROM tasks")
+    // One archival batch: the oldest completed tasks dated before cutoff, leaving out occurrences
+    // whose series could still compute them again
+    String ARCHIVE_BATCH = "SELECT id FROM tasks WHERE date < :cutoff AND completed = 1 AND deleted_at IS NULL "
+            + "AND (occurrence_date IS NULL OR occurrence_date < :cutoff) ORDER BY date, id LIMIT :limit";
+
+    @Query("SELECT * FROM tasks WHERE deleted_at IS NULL")
     List<Task> getAll();
 
+    @Query("SELECT * FROM tasks WHERE date = :date AND deleted_at IS NULL ORDER BY completed, id")
+    List<Task> getTasksOn(LocalDate date);
+
+    @Query("SELECT * FROM tasks WHERE date > :date AND deleted_at IS NULL ORDER BY date, completed, id")
+    List<Task> getTasksAfter(LocalDate date);
+
+    // Observable variants: Room re-runs them whenever the tasks table changes
+    @Query("SELECT * FROM tasks WHERE date = :date AND deleted_at IS NULL ORDER BY completed, id")
+    LiveData<List<Task>> observeTasksOn(LocalDate date);
+
+    @Query("SELECT * FROM tasks WHERE date > :date AND deleted_at IS NULL ORDER BY date, completed, id")
+    LiveData<List<Task>> observeTasksAfter(LocalDate date);
+
+    // Total and completed per bucket (-1 past, 0 today, 1 future), summed from the per-date daily_summary
+    // rows so the cost follows the number of dates, not tasks; tombstones are already left out there
+    @Query("SELECT CASE WHEN date < :today THEN -1 WHEN date = :today THEN 0 ELSE 1 END AS bucket, "
+            + "SUM(total) AS total, SUM(completed) AS completed FROM daily_summary GROUP BY bucket")
+    LiveData<List<BucketCount>> observeBucketCounts(LocalDate today);
+
+    // Statistics read the small pre-aggregated daily_summary table, never tasks. from inclusive, to exclusive.
+    @Query("SELECT * FROM daily_summary WHERE date >= :from AND date < :to ORDER BY date")
+    List<DailySummary> getDailySummaries(LocalDate from, LocalDate to);
+
+    @Query("SELECT * FROM daily_summary WHERE date >= :from AND date < :to ORDER BY date")
+    LiveData<List<DailySummary>> observeDailySummaries(LocalDate from, LocalDate to);
+
+    // Totals per week, keyed by the Monday that starts it (epoch day 4 was a Monday)
+    @Query("SELECT date - (((date - 4) % 7) + 7) % 7 AS date, SUM(total) AS total, SUM(completed) AS completed "
+            + "FROM daily_summary WHERE date >= :from AND date < :to GROUP BY 1 ORDER BY 1")
+    List<DailySummary> getWeeklySummaries(LocalDate from, LocalDate to);
+
+    // Dates on which every task was completed, oldest first; streaks are runs of consecutive dates
+    @Query("SELECT date FROM daily_summary WHERE completed = total AND date <= :until ORDER BY date")
+    List<LocalDate> getFullyCompletedDates(LocalDate until);
+
+    // Past window: from (inclusive) to (exclusive), newest date first
+    @Query("SELECT * FROM tasks WHERE date >= :from AND date < :to AND deleted_at IS NULL "
+            + "ORDER BY date DESC, completed, id")
+    List<Task> getTasksBetween(LocalDate from, LocalDate to);
+
+    // Keyset page of history in (date DESC, id DESC) order, continuing after the last row shown.
+    // Pass yesterday and Long.MAX_VALUE for the first page; today belongs to the main list.
+    @Query("SELECT * FROM tasks WHERE date <= :afterDate AND (date < :afterDate OR id < :afterId) "
+            + "AND deleted_at IS NULL ORDER BY date DESC, id DESC LIMIT :limit")
+    List<Task> getHistoryPage(LocalDate afterDate, long afterId, int limit);
+
+    // The newest :limit live full-text matches over names with their matchinfo, ranked in Java by
+    // SearchRanking. Deleted tasks are filtered before the limit, so they never take a candidate's place.
+    @Query("SELECT tasks.*, matchinfo(tasks_fts, 'pcnalx') AS matchinfo FROM tasks_fts "
+            + "JOIN tasks ON tasks.id = tasks_fts.rowid WHERE tasks_fts MATCH :match AND tasks.deleted_at IS NULL "
+            + "ORDER BY tasks_fts.rowid DESC LIMIT :limit")
+    List<SearchHit> search(String match, int limit);
+
+    @Query("SELECT COUNT(*) FROM tasks WHERE deleted_at IS NULL")
+    int count();
+
+    @Query("SELECT COUNT(*) FROM tasks_archive")
+    int countArchived();
+
+    // Keyset page in id order for streaming export, archived tasks included; the caller closes the cursor.
+    // Deleted occurrences are included (deleted = 1), as their tombstones keep the series from showing them.
+    @Query("SELECT id, name, date, completed, rule_id, occurrence_date, deleted_at IS NOT NULL AS deleted "
+            + "FROM tasks WHERE id > :afterId AND (deleted_at IS NULL OR rule_id IS NOT NULL) "
+            + "UNION ALL SELECT a.id, n.name, a.date, 1, NULL, NULL, 0 FROM tasks_archive a "
+            + "LEFT JOIN task_names n ON n.id = a.name_id WHERE a.id > :afterId ORDER BY id LIMIT :limit")
+    Cursor exportPage(long afterId, int limit);
+
+    @Query("SELECT * FROM tasks WHERE id = :id")
+    Task getTask(long id);
+
+    /*
+     * Reminders. Incomplete live tasks are due on their date; these walk the (date, completed)
+     * index from the first date not yet reminded of.
+     */
+
+    @Query("SELECT MIN(date) FROM tasks WHERE date >= :from AND completed = 0 AND deleted_at IS NULL")
+    LocalDate getNextDueDate(LocalDate from);
+
+    // Due tasks of [from, to], earliest first
+    @Query("SELECT * FROM tasks WHERE date >= :from AND date <= :to AND completed = 0 AND deleted_at IS NULL "
+            + "ORDER BY date, id LIMIT :limit")
+    List<Task> getDueBetween(LocalDate from, LocalDate to, int limit);
+
+    @Query("SELECT COUNT(*) FROM tasks WHERE date >= :from AND date <= :to AND completed = 0 AND deleted_at IS NULL")
+    int countDueBetween(LocalDate from, LocalDate to);
+
     @Insert
     long insert(Task task);
 
+    // Bulk operations: each is a single statement, or a single transaction for list inserts
+    @Insert
+    List<Long> insertAll(List<Task> tasks);
+
+    @Query("UPDATE tasks SET completed = 1 WHERE date = :date AND completed = 0 AND deleted_at IS NULL")
+    int completeAllOn(LocalDate date);
+
+    @Query("UPDATE tasks SET date = :to WHERE date = :from AND deleted_at IS NULL")
+    int moveAll(LocalDate from, LocalDate to);
+
+    @Query("UPDATE tasks SET deleted_at = :deletedAt WHERE completed = 1 AND date < :cutoff AND deleted_at IS NULL")
+    int softDeleteCompletedBefore(LocalDate cutoff, long deletedAt);
+
+    // Clears completed history, archived tasks included: those come back into tasks first, so they are
+    // tombstoned with the rest and restoreDeletedAt and purgeDeletedBefore cover them as well
+    @Transaction
+    default int deleteCompletedBefore(LocalDate cutoff, long deletedAt) {
+        copyArchivedBefore(cutoff);
+        deleteArchivedBefore(cutoff);
+        return softDeleteCompletedBefore(cutoff, deletedAt);
+    }
+
     @Update
-    void update(Task task);
+    int update(Task task);
+
+    // Room runs a list update in a single transaction: one commit for the whole batch
+    @Update
+    int updateAll(List<Task> tasks);
+
+    // Deletes only set a tombstone; TaskDao reads never return tombstoned rows
+    @Query("UPDATE tasks SET deleted_at = :deletedAt WHERE id = :id AND deleted_at IS NULL")
+    int softDelete(long id, long deletedAt);
+
+    @Query("UPDATE tasks SET deleted_at = NULL WHERE id = :id")
+    int restore(long id);
+
+    // Undoes every delete stamped with this time, e.g. one bulk clear
+    @Query("UPDATE tasks SET deleted_at = NULL WHERE deleted_at = :deletedAt")
+    int restoreDeletedAt(long deletedAt);
+
+    /*
+     * Physically removes up to limit tombstones older than cutoff; call until it returns less than
+     * limit. A tombstoned occurrence of a series is kept while the series could still show it
+     * (today or later, within its end date): removing it would bring the occurrence back.
+     */
+    @Query("DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE deleted_at < :cutoff "
+            + "AND (rule_id IS NULL OR occurrence_date < :today OR NOT EXISTS (SELECT 1 FROM recurrence_rules r "
+            + "WHERE r.id = tasks.rule_id AND (r.end_date IS NULL OR r.end_date >= tasks.occurrence_date))) "
+            + "LIMIT :limit)")
+    int purgeDeletedBefore(long cutoff, LocalDate today, int limit);
+
+    /*
+     * Archive. Completed tasks older than the archive age move to tasks_archive under the same id,
+     * with the name stored once in task_names. The daily_summary triggers skip rows moving either
+     * way, so statistics and bucket counts still include archived tasks.
+     */
+
+    @Query("INSERT OR IGNORE INTO task_names (name) SELECT DISTINCT name FROM tasks "
+            + "WHERE name IS NOT NULL AND id IN (" + ARCHIVE_BATCH + ")")
+    void insertArchiveNames(LocalDate cutoff, int limit);
+
+    @Query("INSERT INTO tasks_archive (id, name_id, date) "
+            + "SELECT t.id, (SELECT n.id FROM task_names n WHERE n.name = t.name), t.date FROM tasks t "
+            + "WHERE t.id IN (" + ARCHIVE_BATCH + ")")
+    void copyToArchive(LocalDate cutoff, int limit);
+
+    @Query("DELETE FROM tasks WHERE id IN (" + ARCHIVE_BATCH + ")")
+    int deleteArchiveBatch(LocalDate cutoff, int limit);
+
+    // Moves one batch in one transaction; call until it returns less than limit
+    @Transaction
+    default int archiveCompletedBefore(LocalDate cutoff, int limit) {
+        insertArchiveNames(cutoff, limit);
+        copyToArchive(cutoff, limit);
+        return deleteArchiveBatch(cutoff, limit);
+    }
+
+    // Newest date in the archive, or null if it is empty; History reads the archive from there on
+    @Query("SELECT MAX(date) FROM tasks_archive")
+    LocalDate getNewestArchivedDate();
+
+    // getHistoryPage over the archive, read back as completed tasks
+    @Query("SELECT a.id AS id, n.name AS name, a.date AS date, 1 AS completed, NULL AS deleted_at, "
+            + "NULL AS rule_id, NULL AS occurrence_date FROM tasks_archive a "
+            + "LEFT JOIN task_names n ON n.id = a.name_id "
+            + "WHERE a.date <= :afterDate AND (a.date < :afterDate OR a.id < :afterId) "
+            + "ORDER BY a.date DESC, a.id DESC LIMIT :limit")
+    List<Task> getArchivePage(LocalDate afterDate, long afterId, int limit);
+
+    @Query("INSERT INTO tasks (id, name, date, completed) SELECT a.id, n.name, a.date, 1 FROM tasks_archive a "
+            + "LEFT JOIN task_names n ON n.id = a.name_id WHERE a.id = :id")
+    void copyFromArchive(long id);
+
+    @Query("DELETE FROM tasks_archive WHERE id = :id")
+    int deleteFromArchive(long id);
+
+    // Moves an archived task back into tasks so it can be edited like any other; false if it is not archived
+    @Transaction
+    default boolean unarchive(long id) {
+        copyFromArchive(id);
+        return deleteFromArchive(id) > 0;
+    }
+
+    @Query("INSERT INTO tasks (id, name, date, completed) SELECT a.id, n.name, a.date, 1 FROM tasks_archive a "
+            + "LEFT JOIN task_names n ON n.id = a.name_id WHERE a.id IN (:ids)")
+    void copyAllFromArchive(List<Long> ids);
+
+    @Query("DELETE FROM tasks_archive WHERE id IN (:ids)")
+    int deleteAllFromArchive(List<Long> ids);
+
+    // The summary's insert trigger skips these, as their ids are still archived until the delete below
+    @Query("INSERT INTO tasks (id, name, date, completed) SELECT a.id, n.name, a.date, 1 FROM tasks_archive a "
+            + "LEFT JOIN task_names n ON n.id = a.name_id WHERE a.date < :cutoff")
+    void copyArchivedBefore(LocalDate cutoff);
+
+    @Query("DELETE FROM tasks_archive WHERE date < :cutoff")
+    int deleteArchivedBefore(LocalDate cutoff);
+
+    // unarchive for a batch of ids, in two statements; ids that are not archived are skipped
+    @Transaction
+    default void unarchiveAll(List<Long> ids) {
+        copyAllFromArchive(ids);
+        deleteAllFromArchive(ids);
+    }
+
+    /*
+     * Recurring tasks. A series is one recurrence_rules row; its occurrences are computed per
+     * window and only get a tasks row (rule_id, occurrence_date) once completed, edited or deleted.
+     */
+
+    @Insert
+    long insertRule(RecurrenceRule rule);
+
+    @Query("SELECT * FROM recurrence_rules WHERE id = :id")
+    RecurrenceRule getRule(long id);
+
+    @Query("SELECT * FROM recurrence_rules ORDER BY id")
+    List<RecurrenceRule> getAllRules();
+
+    // Series with an occurrence that could fall in [from, to)
+    @Query("SELECT * FROM recurrence_rules WHERE start_date < :to AND (end_date IS NULL OR end_date >= :from)")
+    List<RecurrenceRule> getRulesBetween(LocalDate from, LocalDate to);
+
+    @Query("SELECT * FROM recurrence_rules WHERE start_date < :to AND (end_date IS NULL OR end_date >= :from)")
+    LiveData<List<RecurrenceRule>> observeRulesBetween(LocalDate from, LocalDate to);
+
+    // Saved occurrences of [from, to), tombstones included since those hide a deleted occurrence
+    @Query("SELECT * FROM tasks WHERE occurrence_date >= :from AND occurrence_date < :to")
+    List<Task> getSavedOccurrences(LocalDate from, LocalDate to);
+
+    @Query("SELECT * FROM tasks WHERE occurrence_date >= :from AND occurrence_date < :to")
+    LiveData<List<Task>> observeSavedOccurrences(LocalDate from, LocalDate to);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertOccurrence(Task occurrence);
+
+    @Query("UPDATE tasks SET name = :name, date = :date, completed = :completed, deleted_at = :deletedAt "
+            + "WHERE occurrence_date = :occurrenceDate AND rule_id = :ruleId")
+    int updateOccurrence(long ruleId, LocalDate occurrenceDate, String name, LocalDate date,
+                         boolean completed, Long deletedAt);
+
+    // Writes an occurrence's row, inserting it the first time and updating it after that
+    @Transaction
+    default void saveOccurrence(Task occurrence) {
+        Task row = new Task(occurrence);
+        row.setId(0);
+        if (insertOccurrence(row) == -1) {
+            updateOccurrence(row.getRuleId(), row.getOccurrenceDate(), row.getName(), row.getDate(),
+                    row.isCompleted(), row.getDeletedAt());
+        }
+    }
+
+    // Undoes deleting an unsaved occurrence: without its tombstone it is computed again
+    @Query("DELETE FROM tasks WHERE occurrence_date = :occurrenceDate AND rule_id = :ruleId AND deleted_at IS NOT NULL")
+    int deleteOccurrenceTombstone(long ruleId, LocalDate occurrenceDate);
+
+    @Query("UPDATE recurrence_rules SET end_date = :endDate WHERE id = :ruleId")
+    int setRuleEndDate(long ruleId, LocalDate endDate);
+
+    // Ends a series before a date, tombstoning rows saved for later occurrences with deletedAt
+    @Transaction
+    default void endSeriesBefore(long ruleId, LocalDate date, long deletedAt) {
+        setRuleEndDate(ruleId, date.minusDays(1));
+        softDeleteOccurrencesFrom(ruleId, date, deletedAt);
+    }
 
-    @Delete
-    void delete(Task task);
+    @Query("UPDATE tasks SET deleted_at = :deletedAt WHERE occurrence_date >= :from AND rule_id = :ruleId "
+            + "AND deleted_at IS NULL")
+    int softDeleteOccurrencesFrom(long ruleId, LocalDate from, long deletedAt);
 } 
\ No newline at end of file
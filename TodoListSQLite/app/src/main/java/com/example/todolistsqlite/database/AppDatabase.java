@@ -2,31 +2,129 @@ package com.example.todolistsqlite.database;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.example.todolistsqlite.metrics.QueryStats;
+import com.example.todolistsqlite.metrics.TimedDao;
+import com.example.todolistsqlite.models.ArchivedTask;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.RecurrenceRule;
 import com.example.todolistsqlite.models.Task;
+import com.example.todolistsqlite.models.TaskFts;
+import com.example.todolistsqlite.models.TaskName;
 import com.example.todolistsqlite.dao.TaskDao;
 
-@Database(entities = {Task.class}, version = 1)
+import java.util.Locale;
+
+@Database(entities = {Task.class, TaskFts.class, DailySummary.class, RecurrenceRule.class,
+        ArchivedTask.class, TaskName.class}, version = 9)
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
     private static volatile AppDatabase INSTANCE;
 
+    private DatabaseConfig config = DatabaseConfig.DEFAULT;
+    // Set once by getInstance, next to the query callback that feeds it
+    private QueryStats queryStats;
+    private volatile TaskDao timedTaskDao;
+
     public abstract TaskDao taskDao();
 
+    // TaskDao with per-method latency, row counts and slow-call logging in getQueryStats()
+    public TaskDao timedTaskDao() {
+        if (timedTaskDao == null) {
+            synchronized (this) {
+                if (timedTaskDao == null) {
+                    timedTaskDao = TimedDao.wrap(TaskDao.class, taskDao(), queryStats);
+                }
+            }
+        }
+        return timedTaskDao;
+    }
+
+    // The instance with whatever config it was built with, or a new one with DatabaseConfig.DEFAULT
     public static AppDatabase getInstance(Context context) {
+        AppDatabase instance = INSTANCE;
+        return instance != null ? instance : getInstance(context, DatabaseConfig.DEFAULT);
+    }
+
+    /**
+     * The instance built with {@code config}. There is one instance per process and so one config,
+     * which everything else (the maintenance worker included) reads back with {@link #getConfig()};
+     * asking again with a different config throws rather than silently keeping the first one.
+     */
+    public static AppDatabase getInstance(Context context, @NonNull DatabaseConfig config) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, "tasks.db")
-                            .allowMainThreadQueries() // For simplicity; consider using async queries in production
+                    // SQL reaches QueryStats on the querying thread so it can be tied to the DAO call
+                    QueryStats queryStats = new QueryStats();
+                    // All queries run through TaskRepository, so main-thread access stays disabled
+                    AppDatabase database = configure(Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, "tasks.db"), config)
+                            .addMigrations(Migrations.ALL)
+                            .setQueryCallback((sql, bindArgs) -> queryStats.onStatement(sql), Runnable::run)
                             .build();
+                    database.config = config;
+                    database.queryStats = queryStats;
+                    INSTANCE = database;
                 }
             }
         }
+        if (!INSTANCE.config.equals(config)) {
+            throw new IllegalStateException("AppDatabase is already open with a different DatabaseConfig");
+        }
         return INSTANCE;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Applies journal mode and connection PRAGMAs to any builder for this database, and installs
+     * the daily_summary triggers when a database is first created.
+     * synchronous and cache_size are per connection, so they are registered with
+     * execPerConnectionSQL and run on every connection in the pool, WAL readers and connections
+     * opened later included. wal_autocheckpoint only matters where commits happen, on the primary
+     * connection that onOpen is given.
+     */
+    @NonNull
+    public static Builder<AppDatabase> configure(@NonNull Builder<AppDatabase> builder,
+                                                 @NonNull DatabaseConfig config) {
+        return builder
+                .setJournalMode(config.isWalEnabled() ? JournalMode.WRITE_AHEAD_LOGGING : JournalMode.TRUNCATE)
+                .addCallback(new Callback() {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        Migrations.createDailySummaryTriggersV9(db);
+                    }
+
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        db.execPerConnectionSQL("PRAGMA synchronous = " + config.getSynchronous().name(), null);
+                        db.execPerConnectionSQL(String.format(Locale.US, "PRAGMA cache_size = -%d",
+                                config.getCacheSizeKb()), null);
+                        if (config.isWalEnabled()) {
+                            DatabaseMaintenance.query(db, String.format(Locale.US, "PRAGMA wal_autocheckpoint = %d",
+                                    config.getWalAutoCheckpointPages()));
+                        }
+                    }
+                });
+    }
+
+    @NonNull
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    @NonNull
+    public QueryStats getQueryStats() {
+        return queryStats;
+    }
+
+    // Text dump of query latency histograms and the slow-call log, for tests and the debug screen
+    @NonNull
+    public String dumpQueryStats() {
+        return queryStats.dump();
+    }
+}
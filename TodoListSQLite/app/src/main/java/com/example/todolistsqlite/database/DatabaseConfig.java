@@ -0,0 +1,178 @@
+package com.example.todolistsqlite.database;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * SQLite tuning applied when {@link AppDatabase} is built. Defaults favour interactive write
+ * latency (WAL with synchronous=NORMAL); a device that must never lose a commit can switch to FULL.
+ */
+public final class DatabaseConfig {
+    public enum Synchronous { OFF, NORMAL, FULL, EXTRA }
+
+    public static final DatabaseConfig DEFAULT = new Builder().build();
+
+    private final boolean walEnabled;
+    private final Synchronous synchronous;
+    private final int cacheSizeKb;
+    private final int walAutoCheckpointPages;
+    private final long maintenanceIntervalHours;
+    private final float vacuumFreePageRatio;
+    private final long tombstoneRetentionHours;
+    private final int purgeBatchSize;
+    private final int compactBatchPages;
+    private final int archiveAfterDays;
+    private final int archiveBatchSize;
+
+    private DatabaseConfig(Builder builder) {
+        this.walEnabled = builder.walEnabled;
+        this.synchronous = builder.synchronous;
+        this.cacheSizeKb = builder.cacheSizeKb;
+        this.walAutoCheckpointPages = builder.walAutoCheckpointPages;
+        this.maintenanceIntervalHours = builder.maintenanceIntervalHours;
+        this.vacuumFreePageRatio = builder.vacuumFreePageRatio;
+        this.tombstoneRetentionHours = builder.tombstoneRetentionHours;
+        this.purgeBatchSize = builder.purgeBatchSize;
+        this.compactBatchPages = builder.compactBatchPages;
+        this.archiveAfterDays = builder.archiveAfterDays;
+        this.archiveBatchSize = builder.archiveBatchSize;
+    }
+
+    public boolean isWalEnabled() {
+        return walEnabled;
+    }
+    public Synchronous getSynchronous() {
+        return synchronous;
+    }
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+    public int getWalAutoCheckpointPages() {
+        return walAutoCheckpointPages;
+    }
+    public long getMaintenanceIntervalHours() {
+        return maintenanceIntervalHours;
+    }
+    public float getVacuumFreePageRatio() {
+        return vacuumFreePageRatio;
+    }
+    public long getTombstoneRetentionHours() {
+        return tombstoneRetentionHours;
+    }
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+    public int getCompactBatchPages() {
+        return compactBatchPages;
+    }
+    public int getArchiveAfterDays() {
+        return archiveAfterDays;
+    }
+    public int getArchiveBatchSize() {
+        return archiveBatchSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DatabaseConfig that = (DatabaseConfig) o;
+        return walEnabled == that.walEnabled && synchronous == that.synchronous
+                && cacheSizeKb == that.cacheSizeKb && walAutoCheckpointPages == that.walAutoCheckpointPages
+                && maintenanceIntervalHours == that.maintenanceIntervalHours
+                && Float.compare(vacuumFreePageRatio, that.vacuumFreePageRatio) == 0
+                && tombstoneRetentionHours == that.tombstoneRetentionHours && purgeBatchSize == that.purgeBatchSize
+                && compactBatchPages == that.compactBatchPages && archiveAfterDays == that.archiveAfterDays
+                && archiveBatchSize == that.archiveBatchSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(walEnabled, synchronous, cacheSizeKb, walAutoCheckpointPages, maintenanceIntervalHours,
+                vacuumFreePageRatio, tombstoneRetentionHours, purgeBatchSize, compactBatchPages, archiveAfterDays,
+                archiveBatchSize);
+    }
+
+    public static class Builder {
+        private boolean walEnabled = true;
+        private Synchronous synchronous = Synchronous.NORMAL;
+        private int cacheSizeKb = 2000;
+        private int walAutoCheckpointPages = 1000;
+        private long maintenanceIntervalHours = 24;
+        private float vacuumFreePageRatio = 0.25f;
+        private long tombstoneRetentionHours = 24;
+        private int purgeBatchSize = 500;
+        private int compactBatchPages = 256;
+        private int archiveAfterDays = 180;
+        private int archiveBatchSize = 500;
+
+        public Builder setWalEnabled(boolean walEnabled) {
+            this.walEnabled = walEnabled;
+            return this;
+        }
+
+        public Builder setSynchronous(@NonNull Synchronous synchronous) {
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        // Page cache per connection, in KiB (passed to SQLite as a negative cache_size)
+        public Builder setCacheSizeKb(int cacheSizeKb) {
+            this.cacheSizeKb = cacheSizeKb;
+            return this;
+        }
+
+        // WAL pages before SQLite checkpoints on commit; 0 disables automatic checkpoints
+        public Builder setWalAutoCheckpointPages(int walAutoCheckpointPages) {
+            this.walAutoCheckpointPages = walAutoCheckpointPages;
+            return this;
+        }
+
+        // How often the background checkpoint / optimize / VACUUM pass runs (WorkManager minimum applies)
+        public Builder setMaintenanceIntervalHours(long maintenanceIntervalHours) {
+            this.maintenanceIntervalHours = maintenanceIntervalHours;
+            return this;
+        }
+
+        // Switch the file to incremental auto-vacuum (one full VACUUM) only once this share of it is free pages
+        public Builder setVacuumFreePageRatio(float vacuumFreePageRatio) {
+            this.vacuumFreePageRatio = vacuumFreePageRatio;
+            return this;
+        }
+
+        // How long a soft-deleted task can still be restored before maintenance purges it
+        public Builder setTombstoneRetentionHours(long tombstoneRetentionHours) {
+            this.tombstoneRetentionHours = tombstoneRetentionHours;
+            return this;
+        }
+
+        // Tombstones removed per purge transaction, so the writer lock is never held for long
+        public Builder setPurgeBatchSize(int purgeBatchSize) {
+            this.purgeBatchSize = purgeBatchSize;
+            return this;
+        }
+
+        // Free pages returned to the file system per incremental_vacuum step
+        public Builder setCompactBatchPages(int compactBatchPages) {
+            this.compactBatchPages = compactBatchPages;
+            return this;
+        }
+
+        // Completed tasks dated more than this many days ago move to tasks_archive
+        public Builder setArchiveAfterDays(int archiveAfterDays) {
+            this.archiveAfterDays = archiveAfterDays;
+            return this;
+        }
+
+        // Tasks moved per archival transaction
+        public Builder setArchiveBatchSize(int archiveBatchSize) {
+            this.archiveBatchSize = archiveBatchSize;
+            return this;
+        }
+
+        public DatabaseConfig build() {
+            return new DatabaseConfig(this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.todolistsqlite.database;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.todolistsqlite.dao.TaskDao;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Housekeeping that is too slow for the interactive path: purging expired tombstones, archiving
+ * old completed tasks, truncating the WAL, refreshing query planner statistics, and handing free
+ * pages back to the file system.
+ * Each step works in small batches so foreground writes are never blocked for long. Retention and
+ * archive ages are measured from {@code clock}.
+ */
+public final class DatabaseMaintenance {
+    // auto_vacuum mode reported by SQLite for INCREMENTAL
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private DatabaseMaintenance() {}
+
+    public static void run(@NonNull AppDatabase database, @NonNull Clock clock) {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        DatabaseConfig config = database.getConfig();
+
+        purgeTombstones(database.taskDao(), config, clock);
+        archiveCompleted(database.taskDao(), config, clock);
+
+        if (config.isWalEnabled()) {
+            query(db, "PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+        query(db, "PRAGMA optimize");
+
+        compact(db, config);
+    }
+
+    // Each batch is its own transaction; a short batch means nothing older is left
+    private static void purgeTombstones(@NonNull TaskDao taskDao, @NonNull DatabaseConfig config,
+                                        @NonNull Clock clock) {
+        long cutoff = clock.millis() - TimeUnit.HOURS.toMillis(config.getTombstoneRetentionHours());
+        LocalDate today = LocalDate.now(clock);
+        int limit = config.getPurgeBatchSize();
+        while (taskDao.purgeDeletedBefore(cutoff, today, limit) == limit) {
+            // keep going
+        }
+    }
+
+    // Same batching; the pages the hot table frees are handed back by compact() below
+    private static void archiveCompleted(@NonNull TaskDao taskDao, @NonNull DatabaseConfig config,
+                                         @NonNull Clock clock) {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(config.getArchiveAfterDays());
+        int limit = config.getArchiveBatchSize();
+        while (taskDao.archiveCompletedBefore(cutoff, limit) == limit) {
+            // keep going
+        }
+    }
+
+    /*
+     * Databases created before incremental auto-vacuum need one full VACUUM to switch modes, which
+     * is only worth it once enough of the file is free. After that, free pages are released a
+     * batch at a time without rewriting the file.
+     */
+    private static void compact(@NonNull SupportSQLiteDatabase db, @NonNull DatabaseConfig config) {
+        if (queryLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            long pageCount = queryLong(db, "PRAGMA page_count");
+            long freePages = queryLong(db, "PRAGMA freelist_count");
+            if (pageCount > 0 && (float) freePages / pageCount >= config.getVacuumFreePageRatio()) {
+                query(db, "PRAGMA auto_vacuum = INCREMENTAL");
+                db.execSQL("VACUUM");
+            }
+            return;
+        }
+        String step = String.format(Locale.US, "PRAGMA incremental_vacuum(%d)", config.getCompactBatchPages());
+        long freePages = queryLong(db, "PRAGMA freelist_count");
+        while (freePages > 0) {
+            drain(db, step);
+            long remaining = queryLong(db, "PRAGMA freelist_count");
+            if (remaining >= freePages) break;
+            freePages = remaining;
+        }
+    }
+
+    // PRAGMAs that return a row must be run as queries on Android
+    static void query(@NonNull SupportSQLiteDatabase db, @NonNull String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    // incremental_vacuum frees one page per step, so its cursor has to be read to the end
+    private static void drain(@NonNull SupportSQLiteDatabase db, @NonNull String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            while (cursor.moveToNext()) {
+                // each row is one page released
+            }
+        }
+    }
+
+    private static long queryLong(@NonNull SupportSQLiteDatabase db, @NonNull String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.todolistsqlite.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+final class Migrations {
+    private static final String TAG = "Migrations";
+
+    private Migrations() {}
+
+    // v2: dates stored as ISO-8601 text so they compare in date order, plus a (date, completed) index.
+    // A value that is neither the legacy display format nor ISO cannot be recovered; the row is
+    // logged and moved to the migration date so it stays visible and editable instead of being
+    // read back as a null date after v3 converts the column.
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Written with the device locale by the old UI, so read back with it
+            DateTimeFormatter legacyFormat = DateTimeFormatter.ofPattern("dd MMM, yyyy");
+            try (Cursor cursor = db.query("SELECT id, date FROM tasks WHERE date IS NOT NULL")) {
+                while (cursor.moveToNext()) {
+                    long id = cursor.getLong(0);
+                    String value = cursor.getString(1);
+                    LocalDate date = parseDate(value, legacyFormat);
+                    if (date != null && date.toString().equals(value)) {
+                        continue; // Already ISO
+                    }
+                    if (date == null) {
+                        date = LocalDate.now();
+                        Log.w(TAG, "Task " + id + " had unreadable date '" + value + "', moved to " + date);
+                    }
+                    ContentValues values = new ContentValues();
+                    values.put("date", date.toString());
+                    db.update("tasks", SQLiteDatabase.CONFLICT_NONE, values, "id = ?", new Object[]{id});
+                }
+            }
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_date_completed` ON `tasks` (`date`, `completed`)");
+        }
+    };
+
+    // The legacy display format first, then ISO; null if the value is neither
+    @Nullable
+    private static LocalDate parseDate(@NonNull String value, @NonNull DateTimeFormatter legacyFormat) {
+        try {
+            return LocalDate.parse(value.trim(), legacyFormat);
+        } catch (DateTimeParseException e) {
+            // not legacy
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // v3: date column becomes an INTEGER epoch day. SQLite cannot change a column type in place,
+    // so the table is rebuilt. Room runs a migration in one transaction, so the copy is a single
+    // INSERT ... SELECT with the conversion done by SQLite.
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tasks_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT, `date` INTEGER, `completed` INTEGER NOT NULL)");
+            // julianday() of an ISO date minus the Unix epoch's Julian day is the epoch day
+            db.execSQL("INSERT INTO tasks_new (id, name, date, completed) "
+                    + "SELECT id, name, CAST(julianday(date) - 2440587.5 AS INTEGER), completed FROM tasks");
+            db.execSQL("DROP TABLE tasks");
+            db.execSQL("ALTER TABLE tasks_new RENAME TO tasks");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_date_completed` ON `tasks` (`date`, `completed`)");
+        }
+    };
+
+    // v4: plain (date) index so History pages read in (date DESC, id DESC) order without a sort
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_date` ON `tasks` (`date`)");
+        }
+    };
+
+    // v5: FTS4 index over task names, with the same content-sync triggers Room creates on a fresh install
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` USING FTS4(`name` TEXT, content=`tasks`)");
+            createTaskFtsTriggers(db);
+            db.execSQL("INSERT INTO tasks_fts(tasks_fts) VALUES('rebuild')");
+        }
+    };
+
+    // v6: per-date totals in daily_summary, backfilled once and then maintained by triggers.
+    // The triggers depend on v7's deleted_at column; MIGRATION_6_7 installs them, and it follows
+    // this one in every upgrade.
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_summary` (`date` INTEGER NOT NULL, "
+                    + "`total` INTEGER NOT NULL, `completed` INTEGER NOT NULL, PRIMARY KEY(`date`))");
+            db.execSQL("INSERT INTO daily_summary (date, total, completed) "
+                    + "SELECT date, COUNT(*), SUM(completed) FROM tasks WHERE date IS NOT NULL GROUP BY date");
+        }
+    };
+
+    // v7: soft delete. deleted_at marks a tombstone; the summary triggers are replaced so that
+    // tombstones stop counting. No row is a tombstone yet, so the summary itself is unchanged.
+    // The trigger SQL is the v7 schema and must not change: later migrations run with these
+    // triggers in place, before the tables newer triggers refer to exist.
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `deleted_at` INTEGER");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_deleted_at` ON `tasks` (`deleted_at`)");
+            db.execSQL("DROP TRIGGER IF EXISTS daily_summary_AFTER_INSERT");
+            db.execSQL("DROP TRIGGER IF EXISTS daily_summary_AFTER_DELETE");
+            db.execSQL("DROP TRIGGER IF EXISTS daily_summary_AFTER_UPDATE");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_INSERT AFTER INSERT ON `tasks` "
+                    + "WHEN NEW.`date` IS NOT NULL AND NEW.`deleted_at` IS NULL BEGIN "
+                    + "INSERT OR IGNORE INTO `daily_summary` (`date`, `total`, `completed`) VALUES (NEW.`date`, 0, 0); "
+                    + "UPDATE `daily_summary` SET `total` = `total` + 1, `completed` = `completed` + NEW.`completed` "
+                    + "WHERE `date` = NEW.`date`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_DELETE AFTER DELETE ON `tasks` "
+                    + "WHEN OLD.`date` IS NOT NULL AND OLD.`deleted_at` IS NULL BEGIN "
+                    + "UPDATE `daily_summary` SET `total` = `total` - 1, `completed` = `completed` - OLD.`completed` "
+                    + "WHERE `date` = OLD.`date`; "
+                    + "DELETE FROM `daily_summary` WHERE `date` = OLD.`date` AND `total` <= 0; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_UPDATE "
+                    + "AFTER UPDATE OF `date`, `completed`, `deleted_at` ON `tasks` "
+                    + "WHEN OLD.`date` IS NOT NEW.`date` OR OLD.`completed` <> NEW.`completed` "
+                    + "OR (OLD.`deleted_at` IS NULL) <> (NEW.`deleted_at` IS NULL) BEGIN "
+                    + "UPDATE `daily_summary` SET `total` = `total` - 1, `completed` = `completed` - OLD.`completed` "
+                    + "WHERE `date` = OLD.`date` AND OLD.`deleted_at` IS NULL; "
+                    + "INSERT OR IGNORE INTO `daily_summary` (`date`, `total`, `completed`) "
+                    + "SELECT NEW.`date`, 0, 0 WHERE NEW.`date` IS NOT NULL AND NEW.`deleted_at` IS NULL; "
+                    + "UPDATE `daily_summary` SET `total` = `total` + 1, `completed` = `completed` + NEW.`completed` "
+                    + "WHERE `date` = NEW.`date` AND NEW.`deleted_at` IS NULL; "
+                    + "DELETE FROM `daily_summary` WHERE `date` = OLD.`date` AND `total` <= 0; END");
+        }
+    };
+
+
+    static void createTaskFtsTriggers(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE BEFORE UPDATE ON `tasks` "
+                + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE BEFORE DELETE ON `tasks` "
+                + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE AFTER UPDATE ON `tasks` "
+                + "BEGIN INSERT INTO `tasks_fts`(`docid`, `name`) VALUES (NEW.`rowid`, NEW.`name`); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT AFTER INSERT ON `tasks` "
+                + "BEGIN INSERT INTO `tasks_fts`(`docid`, `name`) VALUES (NEW.`rowid`, NEW.`name`); END");
+    }
+
+    // v8: recurring tasks. Series live in recurrence_rules; a task row points at its series and
+    // occurrence only once that occurrence has been touched, at most one row per occurrence.
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recurrence_rules` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT, `frequency` TEXT NOT NULL, `interval` INTEGER NOT NULL, "
+                    + "`start_date` INTEGER NOT NULL, `end_date` INTEGER)");
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `rule_id` INTEGER");
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `occurrence_date` INTEGER");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tasks_occurrence_date_rule_id` "
+                    + "ON `tasks` (`occurrence_date`, `rule_id`)");
+        }
+    };
+
+    // v9: archive. Old completed tasks move to tasks_archive with their names in task_names; the
+    // insert and delete triggers are recreated to skip rows moving to or from the archive.
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tasks_archive` (`id` INTEGER NOT NULL, `name_id` INTEGER, "
+                    + "`date` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_archive_date` ON `tasks_archive` (`date`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `task_names` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_task_names_name` ON `task_names` (`name`)");
+            db.execSQL("DROP TRIGGER IF EXISTS daily_summary_AFTER_INSERT");
+            db.execSQL("DROP TRIGGER IF EXISTS daily_summary_AFTER_DELETE");
+            createDailySummaryTriggersV9(db);
+        }
+    };
+
+    // Every upgrade step, oldest first
+    static final Migration[] ALL = {MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5,
+            MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9};
+
+    /**
+     * Keeps daily_summary in step with the live (non-tombstoned) tasks: each insert, delete, or
+     * change of date, completion or tombstone adjusts the counts of the dates involved. Purging a
+     * tombstone changes nothing, and neither does moving a task to or from tasks_archive: the
+     * archive row exists while the task row is deleted or inserted, so archived tasks keep being
+     * counted. Rows whose total drops to zero are removed. Room does not create
+     * these, so they are also installed when a new database is created.
+     *
+     * <p>This is the v9 set, shared by MIGRATION_8_9 and new databases. A later version that
+     * changes it gets a helper of its own, leaving this one as v9 installed it.
+     */
+    static void createDailySummaryTriggersV9(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_INSERT AFTER INSERT ON `tasks` "
+                + "WHEN NEW.`date` IS NOT NULL AND NEW.`deleted_at` IS NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM `tasks_archive` WHERE `id` = NEW.`id`) BEGIN "
+                + "INSERT OR IGNORE INTO `daily_summary` (`date`, `total`, `completed`) VALUES (NEW.`date`, 0, 0); "
+                + "UPDATE `daily_summary` SET `total` = `total` + 1, `completed` = `completed` + NEW.`completed` "
+                + "WHERE `date` = NEW.`date`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_DELETE AFTER DELETE ON `tasks` "
+                + "WHEN OLD.`date` IS NOT NULL AND OLD.`deleted_at` IS NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM `tasks_archive` WHERE `id` = OLD.`id`) BEGIN "
+                + "UPDATE `daily_summary` SET `total` = `total` - 1, `completed` = `completed` - OLD.`completed` "
+                + "WHERE `date` = OLD.`date`; "
+                + "DELETE FROM `daily_summary` WHERE `date` = OLD.`date` AND `total` <= 0; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS daily_summary_AFTER_UPDATE "
+                + "AFTER UPDATE OF `date`, `completed`, `deleted_at` ON `tasks` "
+                + "WHEN OLD.`date` IS NOT NEW.`date` OR OLD.`completed` <> NEW.`completed` "
+                + "OR (OLD.`deleted_at` IS NULL) <> (NEW.`deleted_at` IS NULL) BEGIN "
+                + "UPDATE `daily_summary` SET `total` = `total` - 1, `completed` = `completed` - OLD.`completed` "
+                + "WHERE `date` = OLD.`date` AND OLD.`deleted_at` IS NULL; "
+                + "INSERT OR IGNORE INTO `daily_summary` (`date`, `total`, `completed`) "
+                + "SELECT NEW.`date`, 0, 0 WHERE NEW.`date` IS NOT NULL AND NEW.`deleted_at` IS NULL; "
+                + "UPDATE `daily_summary` SET `total` = `total` + 1, `completed` = `completed` + NEW.`completed` "
+                + "WHERE `date` = NEW.`date` AND NEW.`deleted_at` IS NULL; "
+                + "DELETE FROM `daily_summary` WHERE `date` = OLD.`date` AND `total` <= 0; END");
+    }
+}
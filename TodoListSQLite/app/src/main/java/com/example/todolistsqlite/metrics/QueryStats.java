@@ -0,0 +1,194 @@
+package com.example.todolistsqlite.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-DAO-method latency histograms and row counts, plus a bounded log of slow calls together
+ * with the SQL they ran. SQL arrives through Room's QueryCallback on the querying thread.
+ */
+public final class QueryStats {
+    public static final long DEFAULT_SLOW_QUERY_NANOS = 16_000_000L; // One frame
+    public static final int DEFAULT_SLOW_LOG_CAPACITY = 50;
+
+    // Histogram bucket upper bounds in microseconds; the last bucket is open-ended
+    private static final long[] BUCKET_UPPER_MICROS = {250, 500, 1_000, 2_000, 4_000, 8_000, 16_000, 32_000, 64_000};
+    private static final int MAX_STATEMENTS_PER_CALL = 5;
+
+    private final long slowQueryNanos;
+    private final int slowLogCapacity;
+    private final Map<String, MethodStats> methods = new TreeMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private long statementCount;
+    private final ThreadLocal<List<String>> currentStatements = ThreadLocal.withInitial(ArrayList::new);
+
+    public QueryStats() {
+        this(DEFAULT_SLOW_QUERY_NANOS, DEFAULT_SLOW_LOG_CAPACITY);
+    }
+
+    public QueryStats(long slowQueryNanos, int slowLogCapacity) {
+        this.slowQueryNanos = slowQueryNanos;
+        this.slowLogCapacity = slowLogCapacity;
+    }
+
+    // Marks the start of a DAO call on this thread
+    public void beginCall() {
+        currentStatements.get().clear();
+    }
+
+    // Room QueryCallback hook; must run on the querying thread (use a direct executor)
+    public void onStatement(@NonNull String sql) {
+        List<String> statements = currentStatements.get();
+        if (statements.size() == MAX_STATEMENTS_PER_CALL) {
+            statements.remove(0);
+        }
+        statements.add(sql);
+        synchronized (this) {
+            statementCount++;
+        }
+    }
+
+    public void record(@NonNull String method, long nanos, int rows) {
+        List<String> statements = currentStatements.get();
+        synchronized (this) {
+            MethodStats stats = methods.get(method);
+            if (stats == null) {
+                stats = new MethodStats();
+                methods.put(method, stats);
+            }
+            stats.add(nanos, rows);
+
+            if (nanos >= slowQueryNanos) {
+                if (slowQueries.size() == slowLogCapacity) {
+                    slowQueries.removeFirst();
+                }
+                slowQueries.addLast(new SlowQuery(method, nanos, rows, System.currentTimeMillis(),
+                        new ArrayList<>(statements)));
+            }
+        }
+        statements.clear();
+    }
+
+    public synchronized MethodStats get(@NonNull String method) {
+        MethodStats stats = methods.get(method);
+        return stats != null ? stats.copy() : null;
+    }
+
+    public synchronized List<SlowQuery> getSlowQueries() {
+        return new ArrayList<>(slowQueries);
+    }
+
+    public synchronized void reset() {
+        methods.clear();
+        slowQueries.clear();
+        statementCount = 0;
+    }
+
+    @NonNull
+    public synchronized String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "statements=%d%n", statementCount));
+        for (Map.Entry<String, MethodStats> entry : methods.entrySet()) {
+            MethodStats stats = entry.getValue();
+            out.append(String.format(Locale.US, "%s calls=%d rows=%d avg=%.2fms p50<=%s p99<=%s max=%.2fms%n",
+                    entry.getKey(), stats.count, stats.rows, stats.totalNanos / 1e6 / stats.count,
+                    bucketLabel(stats.percentileBucket(0.50)), bucketLabel(stats.percentileBucket(0.99)),
+                    stats.maxNanos / 1e6));
+        }
+        out.append(String.format(Locale.US, "slow (>= %.1fms), oldest first:%n", slowQueryNanos / 1e6));
+        for (SlowQuery slow : slowQueries) {
+            out.append(String.format(Locale.US, "  %s %.2fms rows=%d %s%n",
+                    slow.method, slow.nanos / 1e6, slow.rows, slow.statements));
+        }
+        return out.toString();
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket >= BUCKET_UPPER_MICROS.length) {
+            return ">" + BUCKET_UPPER_MICROS[BUCKET_UPPER_MICROS.length - 1] / 1000 + "ms";
+        }
+        return String.format(Locale.US, "%.2fms", BUCKET_UPPER_MICROS[bucket] / 1000.0);
+    }
+
+    public static final class MethodStats {
+        private final long[] buckets = new long[BUCKET_UPPER_MICROS.length + 1];
+        private long count;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(long nanos, int rowCount) {
+            long micros = nanos / 1000;
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_MICROS.length && micros > BUCKET_UPPER_MICROS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+            count++;
+            rows += Math.max(rowCount, 0);
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        // Index of the first bucket at or past the given fraction of calls
+        int percentileBucket(double fraction) {
+            long target = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) return i;
+            }
+            return buckets.length - 1;
+        }
+
+        MethodStats copy() {
+            MethodStats copy = new MethodStats();
+            System.arraycopy(buckets, 0, copy.buckets, 0, buckets.length);
+            copy.count = count;
+            copy.rows = rows;
+            copy.totalNanos = totalNanos;
+            copy.maxNanos = maxNanos;
+            return copy;
+        }
+
+        public long getCount() {
+            return count;
+        }
+        public long getRows() {
+            return rows;
+        }
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+        // Calls per latency bucket, bounded by BUCKET_UPPER_MICROS; the last one is open-ended
+        public long[] getBuckets() {
+            return buckets.clone();
+        }
+    }
+
+    public static final class SlowQuery {
+        public final String method;
+        public final long nanos;
+        public final int rows;
+        public final long timestampMillis;
+        public final List<String> statements;
+
+        SlowQuery(String method, long nanos, int rows, long timestampMillis, List<String> statements) {
+            this.method = method;
+            this.nanos = nanos;
+            this.rows = rows;
+            this.timestampMillis = timestampMillis;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.todolistsqlite.metrics;
+
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trace sections plus in-app timing counters for the list refresh and row binding paths.
+ * Sections show up in Perfetto/systrace; the counters can be read or dumped from tests.
+ * List refreshes are timed on the row-building thread, binding on the main thread; synchronized
+ * so either, or a test thread, can read safely.
+ */
+public final class RenderMetrics {
+    public static final String REFRESH_TASK_LISTS = "MainActivity.refreshTaskLists";
+    public static final String REFRESH_LOG_LIST = "MainActivity.refreshLogList";
+    public static final String REFRESH_SEARCH_LIST = "MainActivity.refreshSearchList";
+    public static final String CREATE_VIEW_HOLDER = "TaskListAdapter.onCreateViewHolder";
+    public static final String BIND_VIEW_HOLDER = "TaskListAdapter.onBindViewHolder";
+
+    private static final Map<String, Counter> COUNTERS = new TreeMap<>();
+
+    private RenderMetrics() {}
+
+    public static long begin(@NonNull String section) {
+        Trace.beginSection(section);
+        return System.nanoTime();
+    }
+
+    public static void end(@NonNull String section, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        Trace.endSection();
+        synchronized (COUNTERS) {
+            Counter counter = COUNTERS.get(section);
+            if (counter == null) {
+                counter = new Counter();
+                COUNTERS.put(section, counter);
+            }
+            counter.count++;
+            counter.totalNanos += elapsed;
+            counter.maxNanos = Math.max(counter.maxNanos, elapsed);
+        }
+    }
+
+    public static long getCount(@NonNull String section) {
+        synchronized (COUNTERS) {
+            Counter counter = COUNTERS.get(section);
+            return counter != null ? counter.count : 0;
+        }
+    }
+
+    public static long getTotalNanos(@NonNull String section) {
+        synchronized (COUNTERS) {
+            Counter counter = COUNTERS.get(section);
+            return counter != null ? counter.totalNanos : 0;
+        }
+    }
+
+    public static long getMaxNanos(@NonNull String section) {
+        synchronized (COUNTERS) {
+            Counter counter = COUNTERS.get(section);
+            return counter != null ? counter.maxNanos : 0;
+        }
+    }
+
+    public static void reset() {
+        synchronized (COUNTERS) {
+            COUNTERS.clear();
+        }
+    }
+
+    // One line per section: count, total and max in milliseconds
+    @NonNull
+    public static String dump() {
+        StringBuilder out = new StringBuilder();
+        synchronized (COUNTERS) {
+            for (Map.Entry<String, Counter> entry : COUNTERS.entrySet()) {
+                Counter counter = entry.getValue();
+                out.append(String.format(Locale.US, "%s count=%d total=%.2fms max=%.2fms%n",
+                        entry.getKey(), counter.count, counter.totalNanos / 1e6, counter.maxNanos / 1e6));
+            }
+        }
+        return out.toString();
+    }
+
+    private static class Counter {
+        long count;
+        long totalNanos;
+        long maxNanos;
+    }
+}
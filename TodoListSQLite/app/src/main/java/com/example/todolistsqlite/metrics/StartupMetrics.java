@@ -0,0 +1,88 @@
+package com.example.todolistsqlite.metrics;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Cold-start milestones, in milliseconds since the process started: the first frame of the shell
+ * and the first frame with today's tasks in it, plus how long the background database open took.
+ * Each is recorded once per process; later launches of the activity are warm and not counted.
+ */
+public final class StartupMetrics {
+    private static final long UNSET = -1;
+
+    private static long timeToFirstFrameMs = UNSET;
+    private static long timeToContentMs = UNSET;
+    private static long databaseOpenMs = UNSET;
+
+    private StartupMetrics() {}
+
+    // Records the first draw of this window, if the first frame has not been recorded yet
+    public static void trackFirstFrame(@NonNull View decorView) {
+        synchronized (StartupMetrics.class) {
+            if (timeToFirstFrameMs != UNSET) return;
+        }
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                synchronized (StartupMetrics.class) {
+                    if (timeToFirstFrameMs == UNSET) {
+                        timeToFirstFrameMs = sinceProcessStart();
+                        Trace.setCounter("startup.timeToFirstFrameMs", timeToFirstFrameMs);
+                    }
+                }
+                // Listeners can't be removed while the tree is dispatching to them
+                decorView.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(this));
+            }
+        });
+    }
+
+    public static synchronized void markContent() {
+        if (timeToContentMs == UNSET) {
+            timeToContentMs = sinceProcessStart();
+            Trace.setCounter("startup.timeToContentMs", timeToContentMs);
+        }
+    }
+
+    public static synchronized void recordDatabaseOpen(long millis) {
+        if (databaseOpenMs == UNSET) {
+            databaseOpenMs = millis;
+        }
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    }
+
+    // -1 until recorded
+    public static synchronized long getTimeToFirstFrameMs() {
+        return timeToFirstFrameMs;
+    }
+
+    public static synchronized long getTimeToContentMs() {
+        return timeToContentMs;
+    }
+
+    public static synchronized long getDatabaseOpenMs() {
+        return databaseOpenMs;
+    }
+
+    public static synchronized void reset() {
+        timeToFirstFrameMs = UNSET;
+        timeToContentMs = UNSET;
+        databaseOpenMs = UNSET;
+    }
+
+    @NonNull
+    public static synchronized String dump() {
+        return String.format(Locale.US, "timeToFirstFrame=%dms timeToContent=%dms databaseOpen=%dms%n",
+                timeToFirstFrameMs, timeToContentMs, databaseOpenMs);
+    }
+}
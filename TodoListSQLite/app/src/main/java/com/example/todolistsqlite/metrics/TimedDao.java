@@ -0,0 +1,54 @@
+package com.example.todolistsqlite.metrics;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+/**
+ * Wraps a Room DAO so every call is timed and its row count recorded in {@link QueryStats}.
+ * Observable results are passed through untimed: their queries run later, on Room's executor.
+ */
+public final class TimedDao {
+    private TimedDao() {}
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public static <T> T wrap(@NonNull Class<T> daoType, @NonNull T delegate, @NonNull QueryStats stats) {
+        return (T) Proxy.newProxyInstance(daoType.getClassLoader(), new Class<?>[]{daoType},
+                (proxy, method, args) -> invoke(delegate, method, args, stats));
+    }
+
+    private static Object invoke(Object delegate, Method method, Object[] args, QueryStats stats) throws Throwable {
+        if (method.getDeclaringClass() == Object.class || LiveData.class.isAssignableFrom(method.getReturnType())) {
+            return call(delegate, method, args);
+        }
+        stats.beginCall();
+        long start = System.nanoTime();
+        Object result = call(delegate, method, args);
+        stats.record(method.getName(), System.nanoTime() - start, rowCount(result));
+        return result;
+    }
+
+    private static Object call(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Rows returned, or rows affected for update/delete counts; -1 when unknown
+    private static int rowCount(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Integer) return (Integer) result;
+        if (result instanceof Long) return 1;
+        if (result instanceof Cursor) return -1;
+        return -1;
+    }
+}
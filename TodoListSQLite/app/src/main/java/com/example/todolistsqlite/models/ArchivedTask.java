@@ -0,0 +1,38 @@
+package com.example.todolistsqlite.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A completed task moved out of the tasks table by archival. It keeps its id, the date is stored
+ * as a plain epoch day and the name as an id into {@link TaskName}, so a row is a few integers.
+ * Archived tasks are always completed. Reads turn them back into {@link Task}s.
+ */
+// (date) with the implicit rowid is the History keyset, (date DESC, id DESC)
+@Entity(tableName = "tasks_archive", indices = {@Index(value = {"date"})})
+public class ArchivedTask {
+    @PrimaryKey
+    private long id;
+    // Null for a task without a name
+    @ColumnInfo(name = "name_id")
+    private Long nameId;
+    private long date;
+
+    public ArchivedTask(long id, Long nameId, long date) {
+        this.id = id;
+        this.nameId = nameId;
+        this.date = date;
+    }
+
+    public long getId() {
+        return id;
+    }
+    public Long getNameId() {
+        return nameId;
+    }
+    public long getDate() {
+        return date;
+    }
+}
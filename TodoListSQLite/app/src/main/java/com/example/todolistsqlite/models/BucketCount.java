@@ -0,0 +1,36 @@
+package com.example.todolistsqlite.models;
+
+import java.util.Objects;
+
+/**
+ * One row of {@link com.example.todolistsqlite.dao.TaskDao#observeBucketCounts}: how many tasks,
+ * and how many of them completed, fall in a bucket relative to today.
+ */
+public class BucketCount {
+    public static final int PAST = -1;
+    public static final int TODAY = 0;
+    public static final int FUTURE = 1;
+
+    public int bucket;
+    public int total;
+    public int completed;
+
+    public BucketCount(int bucket, int total, int completed) {
+        this.bucket = bucket;
+        this.total = total;
+        this.completed = completed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BucketCount that = (BucketCount) o;
+        return bucket == that.bucket && total == that.total && completed == that.completed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucket, total, completed);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Completion statistics built from daily_summary: recent per-day and per-week rates, and streaks of
+ * consecutive days on which every task was completed.
+ */
+public final class CompletionStats {
+    private final List<DailySummary> days;
+    private final List<DailySummary> weeks;
+    private final int currentStreak;
+    private final int longestStreak;
+
+    private CompletionStats(List<DailySummary> days, List<DailySummary> weeks, int currentStreak, int longestStreak) {
+        this.days = days;
+        this.weeks = weeks;
+        this.currentStreak = currentStreak;
+        this.longestStreak = longestStreak;
+    }
+
+    /**
+     * @param completedDates every date on which all tasks were completed, oldest first
+     * @param today          a streak still counts as current if it ended yesterday, since today may not be done yet
+     */
+    @NonNull
+    public static CompletionStats of(@NonNull List<DailySummary> days, @NonNull List<DailySummary> weeks,
+                                     @NonNull List<LocalDate> completedDates, @NonNull LocalDate today) {
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate date : completedDates) {
+            run = previous != null && previous.plusDays(1).equals(date) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = date;
+        }
+        boolean current = previous != null && !previous.isBefore(today.minusDays(1));
+        return new CompletionStats(Collections.unmodifiableList(days), Collections.unmodifiableList(weeks),
+                current ? run : 0, longest);
+    }
+
+    // Days with at least one task, oldest first
+    @NonNull
+    public List<DailySummary> getDays() {
+        return days;
+    }
+    // Weeks with at least one task, keyed by their Monday, oldest first
+    @NonNull
+    public List<DailySummary> getWeeks() {
+        return weeks;
+    }
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+}
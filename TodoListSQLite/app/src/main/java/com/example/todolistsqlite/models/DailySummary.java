@@ -0,0 +1,64 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Task counts for one date. Kept current by triggers on the tasks table; never written by the app.
+// Weekly queries reuse this shape with date set to the Monday that starts the week.
+@Entity(tableName = "daily_summary")
+public class DailySummary {
+    @PrimaryKey
+    @NonNull
+    private LocalDate date;
+    private int total;
+    private int completed;
+
+    public DailySummary(@NonNull LocalDate date, int total, int completed) {
+        this.date = date;
+        this.total = total;
+        this.completed = completed;
+    }
+
+    @NonNull
+    public LocalDate getDate() {
+        return date;
+    }
+    public int getTotal() {
+        return total;
+    }
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setDate(@NonNull LocalDate date) {
+        this.date = date;
+    }
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    // Completed share of the day's tasks, 0..1
+    public float getCompletionRate() {
+        return total > 0 ? (float) completed / total : 0f;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailySummary that = (DailySummary) o;
+        return total == that.total && completed == that.completed && date.equals(that.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, total, completed);
+    }
+}
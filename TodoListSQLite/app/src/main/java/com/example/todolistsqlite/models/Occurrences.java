@@ -0,0 +1,69 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expands {@link RecurrenceRule}s into the occurrences of a date window and merges them into
+ * stored task lists. Work is proportional to the window and the rows actually saved.
+ */
+public final class Occurrences {
+    private Occurrences() {}
+
+    /**
+     * Occurrences in {@code [from, to)} that have no row, by date. A saved row, tombstones
+     * included, replaces its occurrence wherever the task has since been moved.
+     */
+    @NonNull
+    public static List<Task> expandUnsaved(@NonNull List<RecurrenceRule> rules, @NonNull List<Task> saved,
+                                           @NonNull LocalDate from, @NonNull LocalDate to) {
+        Set<Long> savedIds = new HashSet<>();
+        for (Task task : saved) {
+            if (task.getRuleId() != null && task.getOccurrenceDate() != null) {
+                savedIds.add(Task.occurrenceId(task.getRuleId(), task.getOccurrenceDate()));
+            }
+        }
+        List<Task> result = new ArrayList<>();
+        for (RecurrenceRule rule : rules) {
+            for (LocalDate date : rule.occurrencesBetween(from, to)) {
+                if (!savedIds.contains(Task.occurrenceId(rule.getId(), date))) {
+                    result.add(rule.toOccurrence(date));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(Task::getDate));
+        return result;
+    }
+
+    /**
+     * Merges unsaved occurrences into stored tasks ordered by date, then completion. Occurrences
+     * are incomplete, so each goes after the incomplete tasks of its date and before the completed.
+     */
+    @NonNull
+    public static List<Task> merge(@NonNull List<Task> stored, @NonNull List<Task> unsaved) {
+        if (unsaved.isEmpty()) return stored;
+        List<Task> result = new ArrayList<>(stored.size() + unsaved.size());
+        int i = 0;
+        for (Task occurrence : unsaved) {
+            while (i < stored.size() && comesBefore(stored.get(i), occurrence.getDate())) {
+                result.add(stored.get(i++));
+            }
+            result.add(occurrence);
+        }
+        while (i < stored.size()) {
+            result.add(stored.get(i++));
+        }
+        return result;
+    }
+
+    private static boolean comesBefore(@NonNull Task task, @NonNull LocalDate occurrenceDate) {
+        int byDate = task.getDate().compareTo(occurrenceDate);
+        return byDate < 0 || (byDate == 0 && !task.isCompleted());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A repeating task, stored once per series. Occurrences are computed for the dates a list is
+ * showing; a task row is written only for an occurrence that is completed, edited or deleted.
+ * Monthly series on the 29th to 31st fall on the last day of shorter months.
+ */
+@Entity(tableName = "recurrence_rules")
+public class RecurrenceRule {
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    private String name;
+    @NonNull
+    private Frequency frequency;
+    // Every how many days, weeks or months; "every N days" is DAILY with interval N
+    private int interval;
+    @NonNull
+    @ColumnInfo(name = "start_date")
+    private LocalDate startDate;
+    // Last date an occurrence may fall on, or null for a series without end
+    @ColumnInfo(name = "end_date")
+    private LocalDate endDate;
+
+    public RecurrenceRule(long id, String name, @NonNull Frequency frequency, int interval,
+                          @NonNull LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.name = name;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Constructor for new series that are not yet stored in DB
+    @Ignore
+    public RecurrenceRule(String name, @NonNull Frequency frequency, int interval, @NonNull LocalDate startDate) {
+        this(0, name, frequency, interval, startDate, null);
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+    public String getName() {
+        return name;
+    }
+    @NonNull
+    public Frequency getFrequency() {
+        return frequency;
+    }
+    public int getInterval() {
+        return interval;
+    }
+    @NonNull
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    // Setters
+    public void setId(long id) {
+        this.id = id;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public void setFrequency(@NonNull Frequency frequency) {
+        this.frequency = frequency;
+    }
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+    public void setStartDate(@NonNull LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    /**
+     * Occurrence dates in {@code [from, to)}, in order. Starts at the first occurrence on or after
+     * {@code from} without walking the series from its start, so the cost follows the window.
+     */
+    @NonNull
+    public List<LocalDate> occurrencesBetween(@NonNull LocalDate from, @NonNull LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate end = endDate != null && endDate.isBefore(to) ? endDate.plusDays(1) : to;
+        int step = Math.max(interval, 1);
+        long index = firstIndexOnOrAfter(from.isAfter(startDate) ? from : startDate, step);
+        for (LocalDate date = occurrence(index, step); date.isBefore(end); date = occurrence(++index, step)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    public boolean occursOn(@NonNull LocalDate date) {
+        return !occurrencesBetween(date, date.plusDays(1)).isEmpty();
+    }
+
+    // The index-th occurrence, counted from the start date. Months are added to the start date
+    // each time, so a series on the 31st does not drift to the 28th after February.
+    @NonNull
+    private LocalDate occurrence(long index, int step) {
+        switch (frequency) {
+            case WEEKLY:
+                return startDate.plusWeeks(index * step);
+            case MONTHLY:
+                return startDate.plusMonths(index * step);
+            default:
+                return startDate.plusDays(index * step);
+        }
+    }
+
+    // Smallest index whose occurrence is on or after date, which is never before the start date
+    private long firstIndexOnOrAfter(@NonNull LocalDate date, int step) {
+        long index;
+        switch (frequency) {
+            case WEEKLY:
+                index = ceilDiv(ChronoUnit.DAYS.between(startDate, date), 7L * step);
+                break;
+            case MONTHLY:
+                // Whole months between can undercount by one; the loop below settles it
+                index = ChronoUnit.MONTHS.between(startDate, date) / step;
+                break;
+            default:
+                index = ceilDiv(ChronoUnit.DAYS.between(startDate, date), step);
+                break;
+        }
+        while (occurrence(index, step).isBefore(date)) {
+            index++;
+        }
+        return index;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * An occurrence that has no row yet. Its id is negative and derived from the series and
+     * date, so lists can tell occurrences apart and writes know to insert rather than update.
+     */
+    @NonNull
+    public Task toOccurrence(@NonNull LocalDate date) {
+        Task task = new Task(Task.occurrenceId(id, date), name, date, false);
+        task.setRuleId(id);
+        task.setOccurrenceDate(date);
+        return task;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecurrenceRule)) return false;
+        RecurrenceRule other = (RecurrenceRule) o;
+        return id == other.id
+                && interval == other.interval
+                && frequency == other.frequency
+                && Objects.equals(name, other.name)
+                && startDate.equals(other.startDate)
+                && Objects.equals(endDate, other.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, frequency, interval, startDate, endDate);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todolistsqlite.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+
+/**
+ * One row of {@link com.example.todolistsqlite.dao.TaskDao#search}: a matching task and the FTS
+ * {@code matchinfo(tasks_fts, 'pcnalx')} blob it is ranked by.
+ */
+public class SearchHit {
+    @Embedded
+    public Task task;
+    @ColumnInfo(name = "matchinfo")
+    public byte[] matchinfo;
+}
@@ -1,12 +1,23 @@
 package com.example.todolistsqlite.models;
 
 import java.time.LocalDate;
+import java.util.Objects;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.ColumnInfo;
 import androidx.room.Ignore;
+import androidx.room.Index;
 
-@Entity(tableName = "tasks")
+// (date, completed) backs the per-tab date queries and their ordering;
+// (date) alone is (date, id) in index order, which is the History keyset;
+// (deleted_at) lets the purge find tombstones without a scan;
+// (occurrence_date, rule_id) allows one row per occurrence of a series and finds them by window
+@Entity(tableName = "tasks", indices = {
+        @Index(value = {"date", "completed"}),
+        @Index(value = {"date"}),
+        @Index(value = {"deleted_at"}),
+        @Index(value = {"occurrence_date", "rule_id"}, unique = true)
+})
 public class Task {
     @PrimaryKey(autoGenerate = true)
     private long id; // Database primary key
@@ -14,6 +25,15 @@ public class Task {
     private LocalDate date;
     @ColumnInfo(name = "completed")
     private boolean isCompleted;
+    // Tombstone: epoch millis of a soft delete, null while the task is live. Reads skip tombstones.
+    @ColumnInfo(name = "deleted_at")
+    private Long deletedAt;
+    // Set on the row of a touched occurrence of a RecurrenceRule. occurrence_date is the date the
+    // series put it on, which stays put when the task itself is moved.
+    @ColumnInfo(name = "rule_id")
+    private Long ruleId;
+    @ColumnInfo(name = "occurrence_date")
+    private LocalDate occurrenceDate;
 
     // Constructor for new tasks that are not yet stored in DB
     @Ignore
@@ -29,6 +49,20 @@ public class Task {
         this.isCompleted = isCompleted;
     }
 
+    // Copy to edit, leaving the original in the snapshot observers compare against
+    @Ignore
+    public Task(Task other) {
+        this(other.id, other.name, other.date, other.isCompleted);
+        this.deletedAt = other.deletedAt;
+        this.ruleId = other.ruleId;
+        this.occurrenceDate = other.occurrenceDate;
+    }
+
+    // Ids of occurrences without a row: negative, and unique per series and date
+    public static long occurrenceId(long ruleId, LocalDate date) {
+        return -((ruleId << 32) | (date.toEpochDay() & 0xFFFFFFFFL));
+    }
+
     // Getters
     public String getName() {
         return name;
@@ -42,6 +76,19 @@ public class Task {
     public long getId() {
         return id;
     }
+    public Long getDeletedAt() {
+        return deletedAt;
+    }
+    public Long getRuleId() {
+        return ruleId;
+    }
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+    // An occurrence of a series that has not been written yet; saving it inserts its row
+    public boolean isUnsavedOccurrence() {
+        return id < 0;
+    }
 
     // Setters
     public void setName(String name) {
@@ -56,4 +103,33 @@ public class Task {
     public void setId(long id) {
         this.id = id;
     }
+    public void setDeletedAt(Long deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    public void setRuleId(Long ruleId) {
+        this.ruleId = ruleId;
+    }
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    // Value equality lets observers skip snapshots identical to the last one
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Task)) return false;
+        Task other = (Task) o;
+        return id == other.id
+                && isCompleted == other.isCompleted
+                && Objects.equals(name, other.name)
+                && Objects.equals(date, other.date)
+                && Objects.equals(deletedAt, other.deletedAt)
+                && Objects.equals(ruleId, other.ruleId)
+                && Objects.equals(occurrenceDate, other.occurrenceDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, date, isCompleted, deletedAt, ruleId, occurrenceDate);
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Total and completed counts for the past, today and future buckets, read in one aggregate query.
+ * Buckets with no tasks count as zero.
+ */
+public final class TaskCounts {
+    public static final TaskCounts EMPTY = new TaskCounts(new int[3], new int[3]);
+
+    // Indexed by bucket + 1
+    private final int[] totals;
+    private final int[] completed;
+
+    private TaskCounts(int[] totals, int[] completed) {
+        this.totals = totals;
+        this.completed = completed;
+    }
+
+    @NonNull
+    public static TaskCounts from(@NonNull List<BucketCount> rows) {
+        int[] totals = new int[3];
+        int[] completed = new int[3];
+        for (BucketCount row : rows) {
+            totals[row.bucket + 1] = row.total;
+            completed[row.bucket + 1] = row.completed;
+        }
+        return new TaskCounts(totals, completed);
+    }
+
+    // Adds occurrences of series that have no row yet; those are never completed
+    @NonNull
+    public TaskCounts plusUnsaved(@NonNull List<Task> occurrences, @NonNull LocalDate today) {
+        if (occurrences.isEmpty()) return this;
+        int[] newTotals = totals.clone();
+        for (Task occurrence : occurrences) {
+            int bucket = Integer.signum(occurrence.getDate().compareTo(today));
+            newTotals[bucket + 1]++;
+        }
+        return new TaskCounts(newTotals, completed);
+    }
+
+    /**
+     * Moves the tasks' counts from one bucket to another after the date changed. Occurrences
+     * without a row are only counted from today on, so those moving into the past just leave.
+     */
+    @NonNull
+    public TaskCounts moved(@NonNull List<Task> tasks, int fromBucket, int toBucket) {
+        if (tasks.isEmpty()) return this;
+        int[] newTotals = totals.clone();
+        int[] newCompleted = completed.clone();
+        for (Task task : tasks) {
+            int done = task.isCompleted() ? 1 : 0;
+            newTotals[fromBucket + 1]--;
+            newCompleted[fromBucket + 1] -= done;
+            if (toBucket == BucketCount.PAST && task.isUnsavedOccurrence()) continue;
+            newTotals[toBucket + 1]++;
+            newCompleted[toBucket + 1] += done;
+        }
+        return new TaskCounts(newTotals, newCompleted);
+    }
+
+    public int getTotal(int bucket) {
+        return totals[bucket + 1];
+    }
+
+    public int getCompleted(int bucket) {
+        return completed[bucket + 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskCounts that = (TaskCounts) o;
+        return Arrays.equals(totals, that.totals) && Arrays.equals(completed, that.completed);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(totals) + Arrays.hashCode(completed);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.todolistsqlite.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+// Full-text index over task names. Room keeps it in sync with the tasks table through triggers.
+@Fts4(contentEntity = Task.class)
+@Entity(tableName = "tasks_fts")
+public class TaskFts {
+    @ColumnInfo(name = "name")
+    private String name;
+
+    public TaskFts(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.todolistsqlite.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Dictionary of archived task names: each distinct name is stored once and archived rows refer to it
+@Entity(tableName = "task_names", indices = {@Index(value = {"name"}, unique = true)})
+public class TaskName {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    @NonNull
+    private String name;
+
+    public TaskName(long id, @NonNull String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public long getId() {
+        return id;
+    }
+    @NonNull
+    public String getName() {
+        return name;
+    }
+}
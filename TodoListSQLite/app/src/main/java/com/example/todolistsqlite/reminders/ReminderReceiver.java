@@ -0,0 +1,24 @@
+package com.example.todolistsqlite.reminders;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.todolistsqlite.repository.TaskRepository;
+
+// The reminder alarm, and the events that clear or shift it: reboot, clock and time zone changes
+public class ReminderReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        PendingResult result = goAsync();
+        TaskRepository repository = TaskRepository.getInstance(context);
+        String action = intent.getAction();
+        if (ReminderScheduler.ACTION_REMIND.equals(action)) {
+            repository.runReminders(ReminderScheduler::onAlarm, result::finish);
+        } else if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            repository.runReminders(ReminderScheduler::onTimeZoneChanged, result::finish);
+        } else {
+            repository.runReminders(ReminderScheduler::rebuild, result::finish);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.todolistsqlite.reminders;
+
+import android.annotation.SuppressLint;
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.activites.MainActivity;
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.Occurrences;
+import com.example.todolistsqlite.models.Task;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Due-date reminders with one alarm for the whole task list. A task that is incomplete and not
+ * deleted is due at {@link #DUE_TIME} on its date. Only the earliest due date not yet reminded of
+ * is armed; when it fires, every task due since the last reminder goes into one notification and
+ * the next date is armed. Writes report the due dates they touched, which re-arms without a query
+ * unless the armed date itself lost a task.
+ *
+ * <p>A task that becomes due on a day already reminded of (added today after {@link #DUE_TIME},
+ * or moved to a recent past day) gets a catch-up reminder straight away, which replaces the earlier
+ * notification with one listing everything due since that day. Days more than
+ * {@link #MAX_CATCH_UP_DAYS} back are not caught up, and neither are bulk changes, which re-arm
+ * with {@link #rebuild()} and only look ahead.
+ *
+ * <p>Everything here reads or writes the database, so it runs on the repository's write thread.
+ */
+public final class ReminderScheduler {
+    public static final LocalTime DUE_TIME = LocalTime.of(9, 0);
+    static final String ACTION_REMIND = "com.example.todolistsqlite.action.REMIND";
+
+    private static final String CHANNEL_ID = "reminders";
+    private static final int NOTIFICATION_ID = 1;
+    private static final String PREFS = "reminders";
+    private static final String KEY_ARMED_DAY = "armed_day";
+    private static final String KEY_NOTIFIED_THROUGH = "notified_through";
+    private static final long NONE = Long.MIN_VALUE;
+    // Lines in the notification; the rest are summarised as a count
+    private static final int MAX_LINES = 6;
+    // A reminder that comes late looks back this far at most
+    private static final int MAX_CATCH_UP_DAYS = 7;
+    // Series are expanded in windows this long while looking for the next occurrence, up to a year
+    private static final int SERIES_WINDOW_DAYS = 28;
+    private static final int SERIES_LOOKAHEAD_DAYS = 366;
+
+    private final Context context;
+    private final TaskDao taskDao;
+    private final AlarmManager alarmManager;
+    private final SharedPreferences prefs;
+    private Clock clock;
+
+    public ReminderScheduler(@NonNull Context context, @NonNull TaskDao taskDao, @NonNull Clock clock) {
+        this.context = context.getApplicationContext();
+        this.taskDao = taskDao;
+        this.clock = clock;
+        this.alarmManager = this.context.getSystemService(AlarmManager.class);
+        this.prefs = this.context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    // The date a task is due on, or null if it is not waiting for a reminder
+    @Nullable
+    public static LocalDate dueDate(@Nullable Task task) {
+        if (task == null || task.isCompleted() || task.getDeletedAt() != null) return null;
+        return task.getDate();
+    }
+
+    /**
+     * A pending task left {@code removed} and/or arrived on {@code added} (either may be null).
+     * An earlier date simply replaces the alarm; only losing a task from the armed date needs a
+     * query, to find out whether anything is still due then. A date already reminded of is
+     * reminded of again from that day on, now.
+     */
+    public void onDueDatesChanged(@Nullable LocalDate removed, @Nullable LocalDate added) {
+        long armed = prefs.getLong(KEY_ARMED_DAY, NONE);
+        long notified = notifiedThrough();
+        if (added != null && added.toEpochDay() <= notified && !added.equals(removed)
+                && added.toEpochDay() > lastDueDay() - MAX_CATCH_UP_DAYS) {
+            // Its due time has passed, so the alarm goes off as soon as it is set
+            prefs.edit().putLong(KEY_NOTIFIED_THROUGH, added.toEpochDay() - 1).apply();
+            arm(added.toEpochDay());
+        } else if (added != null && added.toEpochDay() > notified
+                && (armed == NONE || added.toEpochDay() < armed)) {
+            arm(added.toEpochDay());
+        } else if (removed != null && removed.toEpochDay() == armed && !removed.equals(added)) {
+            rebuild();
+        }
+    }
+
+    // Arms the next due date from scratch; for bulk changes, series changes and clock changes
+    public void rebuild() {
+        LocalDate next = nextDueDate(LocalDate.ofEpochDay(notifiedThrough() + 1));
+        if (next != null) {
+            arm(next.toEpochDay());
+        } else {
+            alarmManager.cancel(alarmIntent());
+            prefs.edit().remove(KEY_ARMED_DAY).apply();
+        }
+    }
+
+    public void onTimeZoneChanged() {
+        // A clock keeps the zone it was created with
+        clock = clock.withZone(ZoneId.systemDefault());
+        rebuild();
+    }
+
+    // The alarm went off: remind of everything now due in one notification, then arm the next date
+    public void onAlarm() {
+        long through = lastDueDay();
+        long notified = notifiedThrough();
+        if (through > notified) {
+            LocalDate from = LocalDate.ofEpochDay(Math.max(notified + 1, through - MAX_CATCH_UP_DAYS + 1));
+            LocalDate to = LocalDate.ofEpochDay(through);
+            List<Task> due = new ArrayList<>(taskDao.getDueBetween(from, to, MAX_LINES));
+            int total = taskDao.countDueBetween(from, to);
+            List<Task> unsaved = unsavedOccurrences(from, to.plusDays(1));
+            total += unsaved.size();
+            for (int i = 0; i < unsaved.size() && due.size() < MAX_LINES; i++) {
+                due.add(unsaved.get(i));
+            }
+            if (total > 0) {
+                notify(due, total);
+            }
+            prefs.edit().putLong(KEY_NOTIFIED_THROUGH, through).apply();
+        }
+        rebuild();
+    }
+
+    // Epoch day of the latest due time that has passed
+    private long lastDueDay() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long today = now.toLocalDate().toEpochDay();
+        return now.toLocalTime().isBefore(DUE_TIME) ? today - 1 : today;
+    }
+
+    // Days up to this one have been reminded of; starts at install time so old tasks stay quiet
+    private long notifiedThrough() {
+        long notified = prefs.getLong(KEY_NOTIFIED_THROUGH, NONE);
+        if (notified == NONE) {
+            notified = lastDueDay();
+            prefs.edit().putLong(KEY_NOTIFIED_THROUGH, notified).apply();
+        }
+        return notified;
+    }
+
+    // Earliest due date from a task row or an occurrence of a series without one
+    @Nullable
+    private LocalDate nextDueDate(@NonNull LocalDate from) {
+        LocalDate next = taskDao.getNextDueDate(from);
+        LocalDate limit = next != null ? next : from.plusDays(SERIES_LOOKAHEAD_DAYS);
+        for (LocalDate start = from; start.isBefore(limit); start = start.plusDays(SERIES_WINDOW_DAYS)) {
+            LocalDate end = start.plusDays(SERIES_WINDOW_DAYS);
+            List<Task> unsaved = unsavedOccurrences(start, end.isBefore(limit) ? end : limit);
+            if (!unsaved.isEmpty()) {
+                return unsaved.get(0).getDate();
+            }
+        }
+        return next;
+    }
+
+    // Occurrences in [from, to) without a row, by date; those with a row are tasks like any other
+    @NonNull
+    private List<Task> unsavedOccurrences(@NonNull LocalDate from, @NonNull LocalDate to) {
+        return Occurrences.expandUnsaved(taskDao.getRulesBetween(from, to),
+                taskDao.getSavedOccurrences(from, to), from, to);
+    }
+
+    private void arm(long day) {
+        long triggerAt = LocalDate.ofEpochDay(day).atTime(DUE_TIME).atZone(clock.getZone()).toInstant().toEpochMilli();
+        // Inexact: the system may batch it with other wakeups, which suits a daily reminder
+        alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, alarmIntent());
+        prefs.edit().putLong(KEY_ARMED_DAY, day).apply();
+    }
+
+    @NonNull
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, ReminderReceiver.class).setAction(ACTION_REMIND);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    // areNotificationsEnabled() is false while POST_NOTIFICATIONS is not granted
+    @SuppressLint("MissingPermission")
+    private void notify(@NonNull List<Task> due, int total) {
+        NotificationManagerCompat notifications = NotificationManagerCompat.from(context);
+        if (!notifications.areNotificationsEnabled()) return;
+        notifications.createNotificationChannel(new NotificationChannel(CHANNEL_ID,
+                context.getString(R.string.reminder_channel), NotificationManager.IMPORTANCE_DEFAULT));
+
+        String title = context.getResources().getQuantityString(R.plurals.reminder_title, total, total);
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setBigContentTitle(title);
+        for (Task task : due) {
+            style.addLine(task.getName());
+        }
+        if (total > due.size()) {
+            style.setSummaryText(context.getString(R.string.reminder_more, total - due.size()));
+        }
+        PendingIntent open = PendingIntent.getActivity(context, 0, new Intent(context, MainActivity.class),
+                PendingIntent.FLAG_IMMUTABLE);
+        // Posted under one id, so a newer reminder replaces an unread older one
+        notifications.notify(NOTIFICATION_ID, new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_calendar)
+                .setContentTitle(title)
+                .setContentText(due.get(0).getName())
+                .setStyle(style)
+                .setNumber(total)
+                .setContentIntent(open)
+                .setAutoCancel(true)
+                .build());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.todolistsqlite.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable sorted map from long keys, as an AVL tree. {@link #put} and {@link #remove} copy
+ * only the path to the changed key, so they cost O(log n) and every earlier version stays valid
+ * and shares the rest of the tree. Values are compared by reference.
+ */
+final class PersistentLongMap<V> {
+    interface Visitor<V> {
+        void visit(long key, @NonNull V value);
+    }
+
+    private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(null);
+
+    private static final class Node<V> {
+        final long key;
+        final V value;
+        final Node<V> left;
+        final Node<V> right;
+        final int height;
+
+        Node(long key, V value, Node<V> left, Node<V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    @Nullable
+    private final Node<V> root;
+
+    private PersistentLongMap(@Nullable Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    static <V> PersistentLongMap<V> empty() {
+        return (PersistentLongMap<V>) EMPTY;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    @Nullable
+    V get(long key) {
+        Node<V> node = root;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    @NonNull
+    PersistentLongMap<V> put(long key, @NonNull V value) {
+        Node<V> newRoot = put(root, key, value);
+        return newRoot == root ? this : new PersistentLongMap<>(newRoot);
+    }
+
+    @NonNull
+    PersistentLongMap<V> remove(long key) {
+        Node<V> newRoot = remove(root, key);
+        return newRoot == root ? this : new PersistentLongMap<>(newRoot);
+    }
+
+    // Entries with from <= key <= to, in ascending or descending key order
+    void visit(long from, long to, boolean descending, @NonNull Visitor<V> visitor) {
+        visit(root, from, to, descending, visitor);
+    }
+
+    private static int height(@Nullable Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <V> Node<V> put(@Nullable Node<V> node, long key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        if (key < node.key) {
+            Node<V> left = put(node.left, key, value);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            Node<V> right = put(node.right, key, value);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        return value == node.value ? node : new Node<>(key, value, node.left, node.right);
+    }
+
+    @Nullable
+    private static <V> Node<V> remove(@Nullable Node<V> node, long key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            Node<V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            Node<V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+
+    @Nullable
+    private static <V> Node<V> removeFirst(@NonNull Node<V> node) {
+        if (node.left == null) return node.right;
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    // Rebuilds a node whose subtrees differ in height by at most two, rotating back into balance
+    private static <V> Node<V> balance(long key, V value, @Nullable Node<V> left, @Nullable Node<V> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value, new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value, new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <V> void visit(@Nullable Node<V> node, long from, long to, boolean descending,
+                                  @NonNull Visitor<V> visitor) {
+        if (node == null) return;
+        boolean inRange = node.key >= from && node.key <= to;
+        if (descending) {
+            if (node.key < to) visit(node.right, from, to, true, visitor);
+            if (inRange) visitor.visit(node.key, node.value);
+            if (node.key > from) visit(node.left, from, to, true, visitor);
+        } else {
+            if (node.key > from) visit(node.left, from, to, false, visitor);
+            if (inRange) visitor.visit(node.key, node.value);
+            if (node.key < to) visit(node.right, from, to, false, visitor);
+        }
+    }
+}
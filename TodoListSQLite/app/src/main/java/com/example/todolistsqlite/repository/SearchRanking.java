@@ -0,0 +1,144 @@
+package com.example.todolistsqlite.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.todolistsqlite.models.SearchHit;
+import com.example.todolistsqlite.models.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ranks full-text matches by BM25, computed from SQLite's {@code matchinfo(tasks_fts, 'pcnalx')}:
+ * words that are rare across all names and frequent in a short name score highest.
+ *
+ * <p>Room cannot register a ranking function, so scoring happens here over at most
+ * {@link #MAX_CANDIDATES} matches, the newest ones. Every page re-reads and re-scores those
+ * candidates and keeps the hits ranked after a (score, id) cursor; it does not sort or skip the
+ * ones already shown. When a search matches more than that, older matches are left out and the page
+ * says so through {@link Page#truncated}, for the UI to show.
+ */
+public final class SearchRanking {
+    // Matches ranked per search; read one more than this to tell whether any were left out
+    public static final int MAX_CANDIDATES = 1_000;
+
+    // The usual BM25 constants: how fast repeated words stop adding, and how much length counts
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Best first: higher score, then newer id
+    private static final Comparator<Scored> ORDER = Comparator.comparingDouble((Scored s) -> s.score)
+            .thenComparingLong(s -> s.task.getId()).reversed();
+
+    /** The last result of a page; the next page starts strictly after it. */
+    public static final class Cursor {
+        public static final Cursor START = new Cursor(Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+        final double score;
+        final long id;
+
+        Cursor(double score, long id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        boolean isBefore(double score, long id) {
+            return score < this.score || (score == this.score && id < this.id);
+        }
+    }
+
+    public static final class Page {
+        public static final Page EMPTY = new Page(Collections.emptyList(), Cursor.START, true, false);
+
+        public final List<Task> tasks;
+        public final Cursor next;
+        public final boolean endReached;
+        // More than MAX_CANDIDATES tasks matched; only the newest of them are ranked
+        public final boolean truncated;
+
+        Page(List<Task> tasks, Cursor next, boolean endReached, boolean truncated) {
+            this.tasks = tasks;
+            this.next = next;
+            this.endReached = endReached;
+            this.truncated = truncated;
+        }
+    }
+
+    private static final class Scored {
+        final Task task;
+        final double score;
+
+        Scored(Task task, double score) {
+            this.task = task;
+            this.score = score;
+        }
+    }
+
+    private SearchRanking() {
+    }
+
+    /**
+     * The best {@code limit} hits ranked after {@code after}, best first. {@code hits} are newest
+     * first, read with a limit of {@code MAX_CANDIDATES + 1}; any past {@code MAX_CANDIDATES} are
+     * not ranked.
+     */
+    @NonNull
+    public static Page page(@NonNull List<SearchHit> hits, @NonNull Cursor after, int limit) {
+        boolean truncated = hits.size() > MAX_CANDIDATES;
+        if (truncated) {
+            hits = hits.subList(0, MAX_CANDIDATES);
+        }
+        // Keeps the best limit hits seen so far, worst on top, so the cost is n log(limit)
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, ORDER.reversed());
+        int remaining = 0;
+        for (SearchHit hit : hits) {
+            double score = score(hit.matchinfo);
+            if (!after.isBefore(score, hit.task.getId())) continue;
+            remaining++;
+            best.add(new Scored(hit.task, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(ORDER);
+        List<Task> tasks = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            tasks.add(scored.task);
+        }
+        Cursor next = ranked.isEmpty() ? after : new Cursor(ranked.get(ranked.size() - 1).score,
+                ranked.get(ranked.size() - 1).task.getId());
+        return new Page(tasks, next, remaining <= limit, truncated);
+    }
+
+    // BM25 summed over the query's phrases. matchinfo is 32-bit integers in native byte order:
+    // p phrases, c columns, n rows, a[c] average tokens, l[c] row tokens, then x[p][c] triples of
+    // (hits in this row, hits in all rows, rows with a hit).
+    static double score(@NonNull byte[] matchinfo) {
+        IntBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        int rows = info.get(2);
+        double score = 0;
+        for (int column = 0; column < columns; column++) {
+            double averageLength = Math.max(1, info.get(3 + column));
+            double length = info.get(3 + columns + column);
+            double norm = K1 * (1 - B + B * length / averageLength);
+            for (int phrase = 0; phrase < phrases; phrase++) {
+                int x = 3 + 2 * columns + 3 * (phrase * columns + column);
+                int hits = info.get(x);
+                if (hits == 0) continue;
+                int rowsWithHit = info.get(x + 2);
+                double idf = Math.log(1 + (rows - rowsWithHit + 0.5) / (rowsWithHit + 0.5));
+                score += idf * hits * (K1 + 1) / (hits + norm);
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.todolistsqlite.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.todolistsqlite.models.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of loaded tasks by epoch day. Each day holds its tasks already in list order
+ * (incomplete first, saved before unsaved occurrences, then id), and a second map finds a task's
+ * day from its id. Adding, moving, toggling or removing one task copies one tree path and one day,
+ * O(log n); the Today, Future and History lists are range reads over days instead of sorts.
+ * Tasks without a date are not indexed.
+ */
+public final class TaskIndex {
+    public static final TaskIndex EMPTY = new TaskIndex(PersistentLongMap.empty(), PersistentLongMap.empty());
+
+    static final Comparator<Task> DAY_ORDER = Comparator.comparing(Task::isCompleted)
+            .thenComparing(Task::isUnsavedOccurrence)
+            .thenComparingLong(Task::getId);
+
+    private final PersistentLongMap<Task[]> days;
+    private final PersistentLongMap<Long> dayById;
+
+    private TaskIndex(PersistentLongMap<Task[]> days, PersistentLongMap<Long> dayById) {
+        this.days = days;
+        this.dayById = dayById;
+    }
+
+    // Epoch day the task with this id is indexed under, or null if it is not loaded
+    @Nullable
+    public Long dayOf(long id) {
+        return dayById.get(id);
+    }
+
+    @NonNull
+    public List<Task> on(@NonNull LocalDate date) {
+        Task[] tasks = days.get(date.toEpochDay());
+        return tasks != null ? Collections.unmodifiableList(Arrays.asList(tasks)) : Collections.emptyList();
+    }
+
+    // Tasks dated from..to inclusive (epoch days), earliest day first
+    @NonNull
+    public List<Task> ascending(long fromDay, long toDay) {
+        List<Task> result = new ArrayList<>();
+        days.visit(fromDay, toDay, false, (day, tasks) -> Collections.addAll(result, tasks));
+        return result;
+    }
+
+    // Tasks dated from..to inclusive (epoch days), latest day first
+    @NonNull
+    public List<Task> descending(long fromDay, long toDay) {
+        List<Task> result = new ArrayList<>();
+        days.visit(fromDay, toDay, true, (day, tasks) -> Collections.addAll(result, tasks));
+        return result;
+    }
+
+    /** Adds the task, or replaces the one with its id wherever that is, moving it if its date changed. */
+    @NonNull
+    public TaskIndex put(@NonNull Task task) {
+        TaskIndex without = remove(task.getId());
+        if (task.getDate() == null) {
+            return without;
+        }
+        long day = task.getDate().toEpochDay();
+        Task[] current = without.days.get(day);
+        Task[] updated;
+        if (current == null) {
+            updated = new Task[]{task};
+        } else {
+            int insertAt = -Arrays.binarySearch(current, task, DAY_ORDER) - 1;
+            updated = new Task[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = task;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        }
+        return new TaskIndex(without.days.put(day, updated), without.dayById.put(task.getId(), day));
+    }
+
+    @NonNull
+    public TaskIndex remove(long id) {
+        Long day = dayById.get(id);
+        if (day == null) {
+            return this;
+        }
+        Task[] current = days.get(day);
+        PersistentLongMap<Task[]> newDays;
+        if (current.length == 1) {
+            newDays = days.remove(day);
+        } else {
+            Task[] updated = new Task[current.length - 1];
+            int to = 0;
+            for (Task task : current) {
+                if (task.getId() != id) {
+                    updated[to++] = task;
+                }
+            }
+            newDays = days.put(day, updated);
+        }
+        return new TaskIndex(newDays, dayById.remove(id));
+    }
+
+    /**
+     * Makes {@code tasks} the whole content of days from..to inclusive (epoch days). Days whose
+     * tasks are unchanged keep their existing arrays, and if nothing changed this index is returned.
+     * A task listed here that was indexed under a day outside the range is moved.
+     */
+    @NonNull
+    public TaskIndex replaceDays(long fromDay, long toDay, @NonNull List<Task> tasks) {
+        Map<Long, List<Task>> grouped = new HashMap<>();
+        for (Task task : tasks) {
+            if (task.getDate() == null) continue;
+            long day = task.getDate().toEpochDay();
+            if (day < fromDay || day > toDay) continue;
+            List<Task> dayTasks = grouped.get(day);
+            if (dayTasks == null) {
+                dayTasks = new ArrayList<>();
+                grouped.put(day, dayTasks);
+            }
+            dayTasks.add(task);
+        }
+
+        // Days in range that are no longer listed, and tasks whose day changed from outside it
+        List<Long> staleDays = new ArrayList<>();
+        days.visit(fromDay, toDay, false, (day, dayTasks) -> {
+            if (!grouped.containsKey(day)) staleDays.add(day);
+        });
+        TaskIndex result = this;
+        for (long day : staleDays) {
+            result = result.removeDay(day);
+        }
+        for (Map.Entry<Long, List<Task>> entry : grouped.entrySet()) {
+            Task[] updated = entry.getValue().toArray(new Task[0]);
+            Arrays.sort(updated, DAY_ORDER);
+            result = result.putDay(entry.getKey(), updated);
+        }
+        return result;
+    }
+
+    @NonNull
+    private TaskIndex removeDay(long day) {
+        Task[] current = days.get(day);
+        if (current == null) return this;
+        PersistentLongMap<Long> newDayById = dayById;
+        for (Task task : current) {
+            newDayById = newDayById.remove(task.getId());
+        }
+        return new TaskIndex(days.remove(day), newDayById);
+    }
+
+    @NonNull
+    private TaskIndex putDay(long day, @NonNull Task[] tasks) {
+        Task[] current = days.get(day);
+        if (current != null && Arrays.equals(current, tasks)) {
+            return this;
+        }
+        TaskIndex result = this;
+        // Drop what was on this day, and the same tasks wherever else they were indexed
+        if (current != null) {
+            result = result.removeDay(day);
+        }
+        for (Task task : tasks) {
+            result = result.remove(task.getId());
+        }
+        PersistentLongMap<Long> newDayById = result.dayById;
+        for (Task task : tasks) {
+            newDayById = newDayById.put(task.getId(), day);
+        }
+        return new TaskIndex(result.days.put(day, tasks), newDayById);
+    }
+}
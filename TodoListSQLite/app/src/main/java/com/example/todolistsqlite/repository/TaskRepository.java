@@ -0,0 +1,612 @@
+package com.example.todolistsqlite.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.room.InvalidationTracker;
+
+import com.example.todolistsqlite.backup.BackupFormat;
+import com.example.todolistsqlite.backup.TaskBackup;
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.metrics.StartupMetrics;
+import com.example.todolistsqlite.models.CompletionStats;
+import com.example.todolistsqlite.models.Occurrences;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.Task;
+import com.example.todolistsqlite.models.TaskCounts;
+import com.example.todolistsqlite.reminders.ReminderScheduler;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Runs all {@link TaskDao} work off the main thread and posts results back to it.
+ * Writes go through a single thread so they are applied in the order they were issued.
+ */
+public class TaskRepository {
+    private static final String TAG = "TaskRepository";
+    private static final int READ_THREADS = 2;
+    // Reads waiting for a thread; past this the oldest waiting read is dropped
+    private static final int READ_QUEUE_CAPACITY = 16;
+    // Queued updates are written once none has arrived for this long, but never later than the max delay
+    private static final long WRITE_COALESCE_WINDOW_MS = 750;
+    private static final long WRITE_MAX_DELAY_MS = 3_000;
+    // How far past today the Future list shows occurrences of recurring tasks
+    public static final int OCCURRENCE_HORIZON_DAYS = 28;
+    private static final Comparator<Task> HISTORY_ORDER = Comparator.comparing(Task::getDate)
+            .thenComparingLong(Task::getId).reversed();
+    private static volatile TaskRepository INSTANCE;
+
+    private final AppDatabase database;
+    private final TaskDao taskDao;
+    private final ExecutorService readExecutor = new ThreadPoolExecutor(READ_THREADS, READ_THREADS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(READ_QUEUE_CAPACITY), TaskRepository::dropOldestRead);
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped by each new search; a queued search from an older one is skipped when it gets a thread
+    private final AtomicInteger searchGeneration = new AtomicInteger();
+
+    // Lists shared with the UI; writes below publish their result here before it is committed
+    private final TaskStore taskStore = new TaskStore();
+    // Told about the due dates each write touches; only used on the write thread
+    private final ReminderScheduler reminders;
+
+    // Write-behind queue: latest pending state per task id, flushed as one batch
+    private final Map<Long, Task> pendingUpdates = new LinkedHashMap<>();
+    // Due date of each queued task before its first queued update, for the reminders after the flush
+    private final Map<Long, LocalDate> pendingDueDates = new HashMap<>();
+    private final Runnable flushRunnable = this::flushPendingWrites;
+    // Uptime by which the queue must be flushed; set by the first update queued after a flush
+    private long flushDeadline;
+
+    public interface Callback<T> {
+        void onComplete(T result);
+    }
+
+    private TaskRepository(Context context, AppDatabase database) {
+        this.database = database;
+        this.taskDao = database.timedTaskDao();
+        this.reminders = new ReminderScheduler(context, taskDao, Clock.systemDefaultZone());
+    }
+
+    public static TaskRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TaskRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TaskRepository(context, AppDatabase.getInstance(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    @NonNull
+    public TaskStore getTaskStore() {
+        return taskStore;
+    }
+
+    // Opens the database, running any migrations, on a background thread so that neither the
+    // main thread nor the first query pays for it. Queries issued meanwhile wait for the open.
+    public void warmUp() {
+        readExecutor.execute(() -> {
+            long start = SystemClock.uptimeMillis();
+            database.getOpenHelper().getWritableDatabase();
+            StartupMetrics.recordDatabaseOpen(SystemClock.uptimeMillis() - start);
+        });
+    }
+
+    // Room re-runs these when the tasks table is invalidated; unchanged results are not re-emitted.
+    // Unsaved occurrences of recurring tasks are merged in for the dates each list shows.
+    public LiveData<List<Task>> observeTasksOn(@NonNull LocalDate date) {
+        return Transformations.distinctUntilChanged(combine(taskDao.observeTasksOn(date),
+                observeUnsavedOccurrences(date, date.plusDays(1)), Occurrences::merge));
+    }
+
+    // Stored future tasks, plus occurrences up to OCCURRENCE_HORIZON_DAYS ahead
+    public LiveData<List<Task>> observeTasksAfter(@NonNull LocalDate date) {
+        return Transformations.distinctUntilChanged(combine(taskDao.observeTasksAfter(date),
+                observeUnsavedOccurrences(date.plusDays(1), occurrenceHorizon(date)), Occurrences::merge));
+    }
+
+    // Counts for headers, empty states and tab badges without loading any tasks
+    public LiveData<TaskCounts> observeTaskCounts(@NonNull LocalDate today) {
+        return Transformations.distinctUntilChanged(combine(
+                Transformations.map(taskDao.observeBucketCounts(today), TaskCounts::from),
+                observeUnsavedOccurrences(today, occurrenceHorizon(today)),
+                (counts, occurrences) -> counts.plusUnsaved(occurrences, today)));
+    }
+
+    // Occurrences in [from, to) without a row, recomputed when a series or a saved occurrence changes
+    private LiveData<List<Task>> observeUnsavedOccurrences(@NonNull LocalDate from, @NonNull LocalDate to) {
+        return combine(taskDao.observeRulesBetween(from, to), taskDao.observeSavedOccurrences(from, to),
+                (rules, saved) -> Occurrences.expandUnsaved(rules, saved, from, to));
+    }
+
+    @NonNull
+    private static LocalDate occurrenceHorizon(@NonNull LocalDate today) {
+        return today.plusDays(OCCURRENCE_HORIZON_DAYS + 1);
+    }
+
+    // Emits combiner(first, second) once both sources have a value, and again whenever either changes
+    private static <A, B, R> LiveData<R> combine(@NonNull LiveData<A> first, @NonNull LiveData<B> second,
+                                                 @NonNull BiFunction<A, B, R> combiner) {
+        MediatorLiveData<R> result = new MediatorLiveData<>();
+        Runnable update = () -> {
+            A a = first.getValue();
+            B b = second.getValue();
+            if (a != null && b != null) {
+                result.setValue(combiner.apply(a, b));
+            }
+        };
+        result.addSource(first, value -> update.run());
+        result.addSource(second, value -> update.run());
+        return result;
+    }
+
+    /**
+     * Calls {@code onChanged} on the main thread after every committed write to the tasks table.
+     * Used by paged lists that cannot be a single LiveData query. Remove it with
+     * {@link #removeTaskChangeObserver} when the caller goes away.
+     */
+    @NonNull
+    public InvalidationTracker.Observer addTaskChangeObserver(@NonNull Runnable onChanged) {
+        InvalidationTracker.Observer observer = new InvalidationTracker.Observer("tasks") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                mainHandler.post(onChanged);
+            }
+        };
+        database.getInvalidationTracker().addObserver(observer);
+        return observer;
+    }
+
+    public void removeTaskChangeObserver(@NonNull InvalidationTracker.Observer observer) {
+        database.getInvalidationTracker().removeObserver(observer);
+    }
+
+    /**
+     * Completion statistics from daily_summary: the last {@code days} days and {@code weeks} weeks
+     * up to and including today, plus current and longest streaks.
+     */
+    public void getCompletionStats(@NonNull LocalDate today, int days, int weeks,
+                                   @NonNull Callback<CompletionStats> callback) {
+        LocalDate end = today.plusDays(1);
+        LocalDate weeksFrom = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(weeks - 1);
+        readExecutor.execute(() -> postResult(callback, CompletionStats.of(
+                taskDao.getDailySummaries(today.minusDays(days - 1), end),
+                taskDao.getWeeklySummaries(weeksFrom, end),
+                taskDao.getFullyCompletedDates(today),
+                today)));
+    }
+
+    public void getHistoryPage(@NonNull LocalDate afterDate, long afterId, int limit,
+                               @NonNull Callback<List<Task>> callback) {
+        readExecutor.execute(() -> postResult(callback, readHistoryPage(afterDate, afterId, limit)));
+    }
+
+    /**
+     * A History page from the tasks table, merged with the archive once the page reaches the
+     * newest archived date. Until the user scrolls back that far the archive is not read.
+     */
+    @NonNull
+    private List<Task> readHistoryPage(@NonNull LocalDate afterDate, long afterId, int limit) {
+        List<Task> page = taskDao.getHistoryPage(afterDate, afterId, limit);
+        LocalDate newestArchived = taskDao.getNewestArchivedDate();
+        if (newestArchived == null
+                || (page.size() == limit && page.get(limit - 1).getDate().isAfter(newestArchived))) {
+            return page;
+        }
+        List<Task> archived = taskDao.getArchivePage(afterDate, afterId, limit);
+        // Both are in (date DESC, id DESC) order
+        List<Task> merged = new ArrayList<>(limit);
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < page.size() || j < archived.size())) {
+            if (j == archived.size() || (i < page.size() && HISTORY_ORDER.compare(page.get(i), archived.get(j)) <= 0)) {
+                merged.add(page.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    // Prefix search over task names; the newest SearchRanking.MAX_CANDIDATES matches come back ranked,
+    // one page at a time after the cursor
+    public void search(@NonNull String text, int limit, @NonNull SearchRanking.Cursor after,
+                       @NonNull Callback<SearchRanking.Page> callback) {
+        String match = toMatchQuery(text);
+        if (match == null) {
+            postResult(callback, SearchRanking.Page.EMPTY);
+            return;
+        }
+        int generation = after == SearchRanking.Cursor.START
+                ? searchGeneration.incrementAndGet() : searchGeneration.get();
+        readExecutor.execute(() -> {
+            // The caller has typed on; it ignores results from older searches anyway
+            if (generation != searchGeneration.get()) return;
+            postResult(callback, SearchRanking.page(
+                    taskDao.search(match, SearchRanking.MAX_CANDIDATES + 1), after, limit));
+        });
+    }
+
+    // Turns free text into an FTS MATCH expression: every word must match as a prefix
+    @Nullable
+    static String toMatchQuery(@NonNull String text) {
+        StringBuilder match = new StringBuilder();
+        for (String word : text.trim().split("\\s+")) {
+            String token = word.replaceAll("[^\\p{L}\\p{N}]", "");
+            if (!token.isEmpty()) {
+                if (match.length() > 0) match.append(' ');
+                match.append(token).append('*');
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    // Starts a recurring task; its occurrences appear without any task rows being written
+    public void insertSeries(@NonNull RecurrenceRule rule, @Nullable Callback<Long> callback) {
+        writeExecutor.execute(() -> {
+            long id = taskDao.insertRule(rule);
+            reminders.rebuild();
+            postResult(callback, id);
+        });
+    }
+
+    public void insert(@NonNull Task task, @Nullable Callback<Long> callback) {
+        writeExecutor.execute(() -> {
+            long id = taskDao.insert(task);
+            Task saved = new Task(task);
+            saved.setId(id);
+            taskStore.update(snapshot -> snapshot.withNewTask(saved));
+            reminders.onDueDatesChanged(null, ReminderScheduler.dueDate(task));
+            postResult(callback, id);
+        });
+    }
+
+    public void update(@NonNull Task task, @Nullable Callback<Integer> callback) {
+        // Anything queued for this task is older than this write, so it must not land after it
+        synchronized (pendingUpdates) {
+            pendingUpdates.remove(task.getId());
+            pendingDueDates.remove(task.getId());
+        }
+        taskStore.update(snapshot -> snapshot.withTask(task));
+        writeExecutor.execute(() -> postResult(callback, write(task)));
+    }
+
+    // The first write to an occurrence creates its row; every other task is updated in place
+    private int write(@NonNull Task task) {
+        if (task.isUnsavedOccurrence()) {
+            taskDao.saveOccurrence(task);
+            reminders.onDueDatesChanged(task.getOccurrenceDate(), ReminderScheduler.dueDate(task));
+            return 1;
+        }
+        Task before = getOrUnarchive(task.getId());
+        int updated = taskDao.update(task);
+        reminders.onDueDatesChanged(ReminderScheduler.dueDate(before), ReminderScheduler.dueDate(task));
+        return updated;
+    }
+
+    // Write thread. A task read from the archive is moved back before it is changed.
+    @Nullable
+    private Task getOrUnarchive(long id) {
+        Task task = taskDao.getTask(id);
+        if (task == null && taskDao.unarchive(id)) {
+            task = taskDao.getTask(id);
+        }
+        return task;
+    }
+
+    /**
+     * Queues an update instead of writing it straight away. A later update to the same task
+     * replaces it, and everything queued is written in one transaction once no update has
+     * arrived for {@link #WRITE_COALESCE_WINDOW_MS}, or {@link #WRITE_MAX_DELAY_MS} after the
+     * first one at the latest. Call {@link #flushPendingWrites()} before the app is backgrounded.
+     * {@code before} is the task as last shown, which tells the reminders what the update changed.
+     */
+    public void updateDeferred(@NonNull Task before, @NonNull Task task) {
+        if (task.isUnsavedOccurrence()) {
+            // Nothing to coalesce into until the row exists
+            update(task, null);
+            return;
+        }
+        synchronized (pendingUpdates) {
+            long now = SystemClock.uptimeMillis();
+            if (pendingUpdates.isEmpty()) {
+                flushDeadline = now + WRITE_MAX_DELAY_MS;
+            }
+            pendingUpdates.put(task.getId(), task);
+            if (!pendingDueDates.containsKey(task.getId())) {
+                pendingDueDates.put(task.getId(), ReminderScheduler.dueDate(before));
+            }
+            // Each update pushes the flush back, up to the deadline
+            mainHandler.removeCallbacks(flushRunnable);
+            mainHandler.postAtTime(flushRunnable, Math.min(now + WRITE_COALESCE_WINDOW_MS, flushDeadline));
+        }
+        taskStore.update(snapshot -> snapshot.withTask(task));
+    }
+
+    // Loaded tasks with queued updates applied, so a load that lands before the flush doesn't undo them
+    @NonNull
+    public List<Task> withPendingUpdates(@NonNull List<Task> tasks) {
+        synchronized (pendingUpdates) {
+            if (pendingUpdates.isEmpty()) return tasks;
+            List<Task> result = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                Task pending = pendingUpdates.get(task.getId());
+                result.add(pending != null ? pending : task);
+            }
+            return result;
+        }
+    }
+
+    // Latest known state of a task, including an update that is still queued
+    @NonNull
+    public Task getPendingOrSame(@NonNull Task task) {
+        synchronized (pendingUpdates) {
+            Task pending = pendingUpdates.get(task.getId());
+            return pending != null ? pending : task;
+        }
+    }
+
+    public void flushPendingWrites() {
+        List<Task> batch;
+        Map<Long, LocalDate> dueBefore;
+        synchronized (pendingUpdates) {
+            mainHandler.removeCallbacks(flushRunnable);
+            if (pendingUpdates.isEmpty()) return;
+            batch = new ArrayList<>(pendingUpdates.values());
+            dueBefore = new HashMap<>(pendingDueDates);
+            pendingUpdates.clear();
+            pendingDueDates.clear();
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            ids.add(task.getId());
+        }
+        writeExecutor.execute(() -> {
+            // Archived tasks are moved back first so the update finds their rows
+            database.runInTransaction(() -> {
+                taskDao.unarchiveAll(ids);
+                taskDao.updateAll(batch);
+            });
+            for (Task task : batch) {
+                reminders.onDueDatesChanged(dueBefore.get(task.getId()), ReminderScheduler.dueDate(task));
+            }
+        });
+    }
+
+    /**
+     * Soft delete: the task becomes a tombstone that every read skips, so {@link #restore} can
+     * undo it. Tombstones are purged later by the maintenance worker.
+     */
+    public void delete(@NonNull Task task, @Nullable Callback<Integer> callback) {
+        synchronized (pendingUpdates) {
+            pendingUpdates.remove(task.getId());
+            pendingDueDates.remove(task.getId());
+        }
+        long deletedAt = System.currentTimeMillis();
+        taskStore.update(snapshot -> snapshot.withoutTask(task.getId()));
+        if (task.isUnsavedOccurrence()) {
+            // Its tombstone keeps the occurrence from being computed again
+            Task tombstone = new Task(task);
+            tombstone.setDeletedAt(deletedAt);
+            update(tombstone, callback);
+            return;
+        }
+        writeExecutor.execute(() -> {
+            getOrUnarchive(task.getId());
+            int deleted = taskDao.softDelete(task.getId(), deletedAt);
+            reminders.onDueDatesChanged(ReminderScheduler.dueDate(task), null);
+            postResult(callback, deleted);
+        });
+    }
+
+    public void restore(@NonNull Task task, @Nullable Callback<Integer> callback) {
+        writeExecutor.execute(() -> {
+            int restored = task.isUnsavedOccurrence()
+                    ? taskDao.deleteOccurrenceTombstone(task.getRuleId(), task.getOccurrenceDate())
+                    : taskDao.restore(task.getId());
+            reminders.onDueDatesChanged(null, ReminderScheduler.dueDate(task));
+            postResult(callback, restored);
+        });
+    }
+
+    /**
+     * Ends the series of {@code occurrence} the day before it, deleting the rows saved for it and
+     * later occurrences with {@code deletedAt}. The callback gets the series as it was, for
+     * {@link #resumeSeries}.
+     */
+    public void stopSeries(@NonNull Task occurrence, long deletedAt, @Nullable Callback<RecurrenceRule> callback) {
+        flushPendingWrites();
+        long ruleId = occurrence.getRuleId();
+        writeExecutor.execute(() -> {
+            RecurrenceRule rule = taskDao.getRule(ruleId);
+            taskDao.endSeriesBefore(ruleId, occurrence.getOccurrenceDate(), deletedAt);
+            reminders.rebuild();
+            postResult(callback, rule);
+        });
+    }
+
+    public void resumeSeries(@NonNull RecurrenceRule rule, long deletedAt, @Nullable Callback<Integer> callback) {
+        writeExecutor.execute(() -> {
+            int restored = database.runInTransaction(() -> {
+                taskDao.setRuleEndDate(rule.getId(), rule.getEndDate());
+                return taskDao.restoreDeletedAt(deletedAt);
+            });
+            reminders.rebuild();
+            postResult(callback, restored);
+        });
+    }
+
+    /*
+     * Bulk operations. Queued single-task updates are flushed first so they are not applied
+     * on top of the bulk result. Unsaved occurrences on the date are included, which saves them.
+     */
+
+    public void completeAllOn(@NonNull LocalDate date, @Nullable Callback<Integer> callback) {
+        flushPendingWrites();
+        writeExecutor.execute(() -> {
+            int completed = database.runInTransaction(() -> {
+                List<Task> occurrences = getUnsavedOccurrencesOn(date);
+                for (Task occurrence : occurrences) {
+                    Task done = new Task(occurrence);
+                    done.setCompleted(true);
+                    taskDao.saveOccurrence(done);
+                }
+                return taskDao.completeAllOn(date) + occurrences.size();
+            });
+            // After the commit, so the reminders read the new state and a rollback leaves them alone
+            reminders.onDueDatesChanged(date, null);
+            postResult(callback, completed);
+        });
+    }
+
+    public void moveAll(@NonNull LocalDate from, @NonNull LocalDate to, @Nullable Callback<Integer> callback) {
+        flushPendingWrites();
+        writeExecutor.execute(() -> {
+            int moved = database.runInTransaction(() -> {
+                List<Task> occurrences = getUnsavedOccurrencesOn(from);
+                for (Task occurrence : occurrences) {
+                    Task copy = new Task(occurrence);
+                    copy.setDate(to);
+                    taskDao.saveOccurrence(copy);
+                }
+                return taskDao.moveAll(from, to) + occurrences.size();
+            });
+            reminders.onDueDatesChanged(from, moved > 0 ? to : null);
+            postResult(callback, moved);
+        });
+    }
+
+    // Write thread only
+    @NonNull
+    private List<Task> getUnsavedOccurrencesOn(@NonNull LocalDate date) {
+        LocalDate next = date.plusDays(1);
+        return Occurrences.expandUnsaved(taskDao.getRulesBetween(date, next),
+                taskDao.getSavedOccurrences(date, next), date, next);
+    }
+
+    // Tombstones carry deletedAt, which restoreDeleted takes to undo the whole batch
+    public void deleteCompletedBefore(@NonNull LocalDate cutoff, long deletedAt, @Nullable Callback<Integer> callback) {
+        flushPendingWrites();
+        writeExecutor.execute(() -> postResult(callback, taskDao.deleteCompletedBefore(cutoff, deletedAt)));
+    }
+
+    public void restoreDeleted(long deletedAt, @Nullable Callback<Integer> callback) {
+        writeExecutor.execute(() -> {
+            int restored = taskDao.restoreDeletedAt(deletedAt);
+            reminders.rebuild();
+            postResult(callback, restored);
+        });
+    }
+
+    /*
+     * Backup. The channel is closed when done; progress is delivered on the main thread and the
+     * callback gets the number of tasks written or read, or null if the file could not be used.
+     */
+
+    public void exportTasks(@NonNull WritableByteChannel channel, @NonNull BackupFormat format,
+                            @Nullable TaskBackup.ProgressListener progress, @NonNull Callback<Long> callback) {
+        flushPendingWrites();
+        TaskBackup.ProgressListener listener = onMainThread(progress);
+        readExecutor.execute(() -> {
+            Long written;
+            try (WritableByteChannel out = channel) {
+                written = TaskBackup.export(taskDao, out, format, listener);
+            } catch (IOException e) {
+                Log.w(TAG, "Export failed", e);
+                written = null;
+            }
+            postResult(callback, written);
+        });
+    }
+
+    // size is the file length in bytes for progress, or -1 if unknown
+    public void importTasks(@NonNull ReadableByteChannel channel, long size, @NonNull BackupFormat format,
+                            @Nullable TaskBackup.ProgressListener progress, @NonNull Callback<Long> callback) {
+        flushPendingWrites();
+        TaskBackup.ProgressListener listener = onMainThread(progress);
+        writeExecutor.execute(() -> {
+            Long imported;
+            try (ReadableByteChannel in = channel) {
+                imported = TaskBackup.importTasks(taskDao, in, size, format, listener);
+            } catch (IOException e) {
+                Log.w(TAG, "Import failed", e);
+                imported = null;
+            }
+            reminders.rebuild();
+            postResult(callback, imported);
+        });
+    }
+
+    /*
+     * Reminders. Writes above keep the alarm current; these are for the alarm itself and for the
+     * system events that invalidate it.
+     */
+
+    // Runs step on the write thread after the writes already queued, then done on that thread
+    public void runReminders(@NonNull Consumer<ReminderScheduler> step, @NonNull Runnable done) {
+        writeExecutor.execute(() -> {
+            try {
+                step.accept(reminders);
+            } finally {
+                done.run();
+            }
+        });
+    }
+
+    public void rebuildReminders() {
+        writeExecutor.execute(reminders::rebuild);
+    }
+
+    @Nullable
+    private TaskBackup.ProgressListener onMainThread(@Nullable TaskBackup.ProgressListener listener) {
+        if (listener == null) return null;
+        return (records, fraction) -> mainHandler.post(() -> listener.onProgress(records, fraction));
+    }
+
+    // The reader has moved on from what it asked for first (superseded searches, earlier pages), so a
+    // full queue makes room by dropping that rather than the read just asked for
+    private static void dropOldestRead(Runnable read, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) return;
+        Runnable dropped = executor.getQueue().poll();
+        Log.w(TAG, "Read queue full, dropped " + dropped);
+        executor.execute(read);
+    }
+
+    private <T> void postResult(@Nullable Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onComplete(result));
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.todolistsqlite.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.todolistsqlite.models.BucketCount;
+import com.example.todolistsqlite.models.Task;
+import com.example.todolistsqlite.models.TaskCounts;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Task state shared by the observers that load it, the writers that change it and the row
+ * pipeline that renders it. Every state is an immutable {@link Snapshot}. A change builds a new
+ * snapshot from the latest one and publishes it with a compare-and-set, retrying if another
+ * thread got there first, so readers on any thread take no lock and never see half a change.
+ */
+public final class TaskStore {
+    public interface Listener {
+        // Main thread. Publishes in quick succession are delivered as the latest one only.
+        void onSnapshot(@NonNull Snapshot snapshot);
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable deliverRunnable = this::deliver;
+    // Main thread only
+    private long deliveredVersion = -1;
+
+    @NonNull
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Publishes {@code change} applied to the latest snapshot. The change may run more than once
+     * under contention, so it must only build and return a snapshot. Returning its argument
+     * unchanged publishes nothing.
+     */
+    @NonNull
+    public Snapshot update(@NonNull UnaryOperator<Snapshot> change) {
+        while (true) {
+            Snapshot base = current.get();
+            Snapshot next = change.apply(base);
+            if (next == base) {
+                return base;
+            }
+            if (current.compareAndSet(base, next)) {
+                mainHandler.removeCallbacks(deliverRunnable);
+                mainHandler.post(deliverRunnable);
+                return next;
+            }
+        }
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void deliver() {
+        Snapshot snapshot = current.get();
+        if (snapshot.version == deliveredVersion) return;
+        deliveredVersion = snapshot.version;
+        for (Listener listener : listeners) {
+            listener.onSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * One consistent view of the loaded tasks, held in a {@link TaskIndex} by day, with the counts.
+     * The tasks in it must not be changed: edit a copy ({@code new Task(task)}) and publish that.
+     * Every derived snapshot has a higher version; {@link #mainVersion} and {@link #historyVersion}
+     * move only when the days a tab shows were touched.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, null, TaskIndex.EMPTY, TaskCounts.EMPTY, false, false,
+                HistoryCursor.start());
+
+        public final long version;
+        // Versions of what the Main tab (today and later) and History (before today) show
+        public final long mainVersion;
+        public final long historyVersion;
+        // The date the lists were loaded for; null until the first load starts
+        @Nullable
+        public final LocalDate today;
+        public final TaskIndex index;
+        // Per-bucket counts; decide headers, empty states and tab badges
+        public final TaskCounts counts;
+        public final boolean countsLoaded;
+        public final boolean todayLoaded;
+        // How far History has paged in
+        public final HistoryCursor history;
+
+        private Snapshot(long version, long mainVersion, long historyVersion, @Nullable LocalDate today,
+                         TaskIndex index, TaskCounts counts, boolean countsLoaded, boolean todayLoaded,
+                         HistoryCursor history) {
+            this.version = version;
+            this.mainVersion = mainVersion;
+            this.historyVersion = historyVersion;
+            this.today = today;
+            this.index = index;
+            this.counts = counts;
+            this.countsLoaded = countsLoaded;
+            this.todayLoaded = todayLoaded;
+            this.history = history;
+        }
+
+        // Today's tasks incomplete first
+        @NonNull
+        public List<Task> todayTasks() {
+            return today != null ? index.on(today) : Collections.emptyList();
+        }
+
+        // Future tasks by date, then completion
+        @NonNull
+        public List<Task> futureTasks() {
+            return today != null ? index.ascending(today.toEpochDay() + 1, Long.MAX_VALUE) : Collections.emptyList();
+        }
+
+        // Days before today, newest date first, as far as History has paged in
+        @NonNull
+        public List<Task> historyTasks() {
+            return today != null ? index.descending(Long.MIN_VALUE, today.toEpochDay() - 1) : Collections.emptyList();
+        }
+
+        /**
+         * Moves to another date keeping what is loaded. The lists are day ranges of the index, so
+         * only the days between the old and the new date change section, and the counts move with
+         * them. Occurrences without a row that fall behind today are dropped, as History shows saved
+         * tasks only. Moving back counts only the days History has paged in, so after a clock is set
+         * back the counts are exact again once they reload for the new date.
+         */
+        @NonNull
+        public Snapshot withToday(@NonNull LocalDate date) {
+            if (date.equals(today)) return this;
+            if (today == null) {
+                return new Snapshot(version + 1, mainVersion + 1, historyVersion + 1, date,
+                        TaskIndex.EMPTY, TaskCounts.EMPTY, false, false, history);
+            }
+            long oldDay = today.toEpochDay();
+            long newDay = date.toEpochDay();
+            TaskIndex newIndex = index;
+            TaskCounts newCounts;
+            if (newDay > oldDay) {
+                newCounts = counts.moved(index.on(today), BucketCount.TODAY, BucketCount.PAST)
+                        .moved(index.ascending(oldDay + 1, newDay - 1), BucketCount.FUTURE, BucketCount.PAST)
+                        .moved(index.on(date), BucketCount.FUTURE, BucketCount.TODAY);
+                for (Task task : index.ascending(oldDay, newDay - 1)) {
+                    if (task.isUnsavedOccurrence()) {
+                        newIndex = newIndex.remove(task.getId());
+                    }
+                }
+            } else {
+                newCounts = counts.moved(index.on(today), BucketCount.TODAY, BucketCount.FUTURE)
+                        .moved(index.ascending(newDay + 1, oldDay - 1), BucketCount.PAST, BucketCount.FUTURE)
+                        .moved(index.on(date), BucketCount.PAST, BucketCount.TODAY);
+            }
+            return new Snapshot(version + 1, mainVersion + 1, historyVersion + 1, date,
+                    newIndex, newCounts, countsLoaded, todayLoaded, history);
+        }
+
+        @NonNull
+        public Snapshot withTodayTasks(@NonNull List<Task> tasks) {
+            long day = requireToday().toEpochDay();
+            return withIndex(index.replaceDays(day, day, tasks), true, day, day).loaded(countsLoaded, true);
+        }
+
+        @NonNull
+        public Snapshot withFutureTasks(@NonNull List<Task> tasks) {
+            long day = requireToday().toEpochDay() + 1;
+            return withIndex(index.replaceDays(day, Long.MAX_VALUE, tasks), false, day, Long.MAX_VALUE);
+        }
+
+        // Drops what History has loaded and starts paging again from the newest day
+        @NonNull
+        public Snapshot withHistoryCleared() {
+            long day = requireToday().toEpochDay() - 1;
+            return withIndex(index.replaceDays(Long.MIN_VALUE, day, Collections.emptyList()), false,
+                    Long.MIN_VALUE, day).withHistory(HistoryCursor.start());
+        }
+
+        // Starts a reload of what History has paged in; loads still running from the old cursor are dropped
+        @NonNull
+        public Snapshot withHistoryReload() {
+            return withHistory(history.renewed());
+        }
+
+        /**
+         * Replaces what History has loaded before today with {@code tasks}, read from cursor
+         * {@code from}, and moves the cursor to {@code next}. Nothing changes if {@code from} is no
+         * longer current. Today's own tasks come from {@link #withTodayTasks} and are left alone.
+         */
+        @NonNull
+        public Snapshot withHistoryTasks(@NonNull HistoryCursor from, @NonNull HistoryCursor next,
+                                         @NonNull List<Task> tasks) {
+            if (from != history) return this;
+            long day = requireToday().toEpochDay() - 1;
+            return withIndex(index.replaceDays(Long.MIN_VALUE, day, tasks), false, Long.MIN_VALUE, day)
+                    .withHistory(next);
+        }
+
+        // Adds a page of History read from cursor from, if it is still current; tasks from today on are skipped
+        @NonNull
+        public Snapshot withHistoryPage(@NonNull HistoryCursor from, @NonNull HistoryCursor next,
+                                        @NonNull List<Task> page) {
+            if (from != history) return this;
+            long todayDay = requireToday().toEpochDay();
+            TaskIndex newIndex = index;
+            for (Task task : page) {
+                if (task.getDate() != null && task.getDate().toEpochDay() < todayDay) {
+                    newIndex = newIndex.put(task);
+                }
+            }
+            return withIndex(newIndex, false, Long.MIN_VALUE, todayDay - 1).withHistory(next);
+        }
+
+        @NonNull
+        public Snapshot withCounts(@NonNull TaskCounts counts) {
+            return new Snapshot(version + 1, mainVersion + 1, historyVersion + 1, today,
+                    index, counts, true, todayLoaded, history);
+        }
+
+        /**
+         * Puts the task under its date, replacing the one with the same id, ahead of the database
+         * write so rows rebuilt in the meantime already show it. Tasks that were not loaded are
+         * left to the next load.
+         */
+        @NonNull
+        public Snapshot withTask(@NonNull Task task) {
+            Long oldDay = index.dayOf(task.getId());
+            if (oldDay == null || task.getDate() == null) return this;
+            long newDay = task.getDate().toEpochDay();
+            return withIndex(index.put(task), false, Math.min(oldDay, newDay), Math.max(oldDay, newDay));
+        }
+
+        // Indexes a task just inserted, if it falls in the fully loaded days from today on
+        @NonNull
+        public Snapshot withNewTask(@NonNull Task task) {
+            if (task.getDate() == null || today == null || task.getDate().isBefore(today)) return this;
+            long day = task.getDate().toEpochDay();
+            return withIndex(index.put(task), false, day, day);
+        }
+
+        // Drops the task ahead of the database write
+        @NonNull
+        public Snapshot withoutTask(long id) {
+            Long day = index.dayOf(id);
+            if (day == null) return this;
+            return withIndex(index.remove(id), false, day, day);
+        }
+
+        // A new snapshot over newIndex, bumping the tab versions whose days fromDay..toDay touch
+        @NonNull
+        private Snapshot withIndex(@NonNull TaskIndex newIndex, boolean force, long fromDay, long toDay) {
+            if (newIndex == index && !force) return this;
+            long todayDay = requireToday().toEpochDay();
+            return new Snapshot(version + 1,
+                    toDay >= todayDay ? mainVersion + 1 : mainVersion,
+                    fromDay < todayDay ? historyVersion + 1 : historyVersion,
+                    today, newIndex, counts, countsLoaded, todayLoaded, history);
+        }
+
+        @NonNull
+        private Snapshot loaded(boolean countsLoaded, boolean todayLoaded) {
+            if (countsLoaded == this.countsLoaded && todayLoaded == this.todayLoaded) return this;
+            return new Snapshot(version, mainVersion, historyVersion, today, index, counts, countsLoaded, todayLoaded,
+                    history);
+        }
+
+        @NonNull
+        private Snapshot withHistory(@NonNull HistoryCursor history) {
+            if (history == this.history) return this;
+            return new Snapshot(version + 1, mainVersion, historyVersion, today, index, counts, countsLoaded,
+                    todayLoaded, history);
+        }
+
+        @NonNull
+        private LocalDate requireToday() {
+            if (today == null) {
+                throw new IllegalStateException("withToday must be published first");
+            }
+            return today;
+        }
+    }
+
+    /**
+     * How far History has paged in, kept in the snapshot so paging state outlives the activity that
+     * started it. A load reads from the current cursor and its result is published only while that
+     * same cursor is still current, so a page that lost a race with a reload, a clear or another
+     * page, including one from an activity destroyed since, is dropped by the compare-and-set.
+     */
+    public static final class HistoryCursor {
+        // Last row paged in, or null and Long.MAX_VALUE before the first page
+        @Nullable
+        public final LocalDate afterDate;
+        public final long afterId;
+        public final int loadedCount;
+        public final boolean endReached;
+
+        private HistoryCursor(@Nullable LocalDate afterDate, long afterId, int loadedCount, boolean endReached) {
+            this.afterDate = afterDate;
+            this.afterId = afterId;
+            this.loadedCount = loadedCount;
+            this.endReached = endReached;
+        }
+
+        // Before the first page
+        @NonNull
+        public static HistoryCursor start() {
+            return new HistoryCursor(null, Long.MAX_VALUE, 0, false);
+        }
+
+        // The cursor once page, read with the given limit, has been added
+        @NonNull
+        public HistoryCursor after(@NonNull List<Task> page, int limit) {
+            boolean end = page.size() < limit;
+            if (page.isEmpty()) {
+                return new HistoryCursor(afterDate, afterId, loadedCount, end);
+            }
+            Task last = page.get(page.size() - 1);
+            return new HistoryCursor(last.getDate(), last.getId(), loadedCount + page.size(), end);
+        }
+
+        @NonNull
+        HistoryCursor renewed() {
+            return new HistoryCursor(afterDate, afterId, loadedCount, endReached);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.todolistsqlite.time;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Tells its listener when the local date changes while it is started: at the next local midnight,
+ * and when the user or the network changes the clock or the time zone. Dates are read from the
+ * given {@link Clock}, so tests can move time themselves.
+ */
+public final class DayBoundaryScheduler {
+    public interface Listener {
+        // Main thread, once for each change of date
+        void onDayChanged(@NonNull LocalDate today);
+    }
+
+    private final Context context;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable checkRunnable = this::check;
+    private final BroadcastReceiver timeChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                // A clock keeps the zone it was created with
+                clock = clock.withZone(ZoneId.systemDefault());
+            }
+            check();
+        }
+    };
+    private Clock clock;
+    private LocalDate today;
+    private boolean started;
+
+    public DayBoundaryScheduler(@NonNull Context context, @NonNull Clock clock, @NonNull Listener listener) {
+        this.context = context.getApplicationContext();
+        this.clock = clock;
+        this.listener = listener;
+        this.today = LocalDate.now(clock);
+    }
+
+    // The date as of the last check
+    @NonNull
+    public LocalDate today() {
+        return today;
+    }
+
+    /** Starts watching, first catching up on a date change missed while stopped. */
+    public void start() {
+        if (started) return;
+        started = true;
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        ContextCompat.registerReceiver(context, timeChangeReceiver, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+        check();
+    }
+
+    public void stop() {
+        if (!started) return;
+        started = false;
+        context.unregisterReceiver(timeChangeReceiver);
+        handler.removeCallbacks(checkRunnable);
+    }
+
+    // Re-reads the date, tells the listener if it moved and re-arms for the next midnight
+    private void check() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.equals(today)) {
+            today = now;
+            listener.onDayChanged(now);
+        }
+        if (!started) return;
+        // Uptime stops while the device sleeps, so a late run just finds the date already changed
+        handler.removeCallbacks(checkRunnable);
+        Instant midnight = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+        handler.postDelayed(checkRunnable, Math.max(0, Duration.between(clock.instant(), midnight).toMillis()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todolistsqlite.workers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.database.DatabaseMaintenance;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+// Periodic WAL checkpoint, PRAGMA optimize and conditional VACUUM while the device is idle
+public class DatabaseMaintenanceWorker extends Worker {
+    private static final String WORK_NAME = "database_maintenance";
+
+    public DatabaseMaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        DatabaseMaintenance.run(AppDatabase.getInstance(getApplicationContext()), Clock.systemDefaultZone());
+        return Result.success();
+    }
+
+    public static void schedule(@NonNull Context context) {
+        long intervalHours = AppDatabase.getInstance(context).getConfig().getMaintenanceIntervalHours();
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                DatabaseMaintenanceWorker.class, intervalHours, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+}
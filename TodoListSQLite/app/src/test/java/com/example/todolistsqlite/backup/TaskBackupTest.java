@@ -0,0 +1,194 @@
+package com.example.todolistsqlite.backup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.models.Occurrences;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class TaskBackupTest {
+    // Names that need escaping or quoting in one format or the other
+    private static final String[] NAMES = {
+            "plain", "with, comma", "with \"quotes\"", "two\nlines", "crlf\r\nend", "", null, "ünïcödé ☃", "id"
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase source;
+    private AppDatabase target;
+
+    @Before
+    public void setUp() {
+        source = inMemory();
+        target = inMemory();
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    public void jsonLinesRoundTrip() throws IOException {
+        assertRoundTrip(BackupFormat.JSON_LINES);
+    }
+
+    @Test
+    public void csvRoundTrip() throws IOException {
+        assertRoundTrip(BackupFormat.CSV);
+    }
+
+    @Test
+    public void jsonLinesSeriesRoundTrip() throws IOException {
+        assertSeriesRoundTrip(BackupFormat.JSON_LINES);
+    }
+
+    @Test
+    public void csvSeriesRoundTrip() throws IOException {
+        assertSeriesRoundTrip(BackupFormat.CSV);
+    }
+
+    @Test
+    public void csvImportWithoutHeader() throws IOException {
+        Path file = folder.newFile("tasks.csv").toPath();
+        Files.write(file, "7,buy milk,2026-10-18,true\n8,\"call, mum\",,false\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, TaskBackup.importTasks(target.taskDao(), file, BackupFormat.CSV, null));
+        List<Task> tasks = target.taskDao().getAll();
+        assertEquals("buy milk", tasks.get(0).getName());
+        assertEquals(LocalDate.of(2026, 10, 18), tasks.get(0).getDate());
+        assertTrue(tasks.get(0).isCompleted());
+        assertEquals("call, mum", tasks.get(1).getName());
+        assertNull(tasks.get(1).getDate());
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedRecordFails() throws IOException {
+        Path file = folder.newFile("tasks.jsonl").toPath();
+        Files.write(file, "{\"name\":\"ok\",\"date\":null,\"completed\":false}\nnot json\n".getBytes(StandardCharsets.UTF_8));
+        TaskBackup.importTasks(target.taskDao(), file, BackupFormat.JSON_LINES, null);
+    }
+
+    private void assertRoundTrip(BackupFormat format) throws IOException {
+        // More than one batch, so paging and batched inserts are both exercised
+        int size = TaskBackup.BATCH_SIZE * 2 + 17;
+        List<Task> tasks = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < size; i++) {
+            LocalDate date = i % 11 == 0 ? null : start.plusDays(i % 400);
+            tasks.add(new Task(NAMES[i % NAMES.length], date));
+            tasks.get(i).setCompleted(i % 3 == 0);
+        }
+        source.taskDao().insertAll(tasks);
+
+        Path file = folder.getRoot().toPath().resolve("tasks" + format.getExtension());
+        List<Long> exportProgress = new ArrayList<>();
+        assertEquals(size, TaskBackup.export(source.taskDao(), file, format,
+                (records, fraction) -> exportProgress.add(records)));
+        assertEquals(Long.valueOf(size), exportProgress.get(exportProgress.size() - 1));
+
+        List<Float> importProgress = new ArrayList<>();
+        assertEquals(size, TaskBackup.importTasks(target.taskDao(), file, format,
+                (records, fraction) -> importProgress.add(fraction)));
+        assertEquals(1f, importProgress.get(importProgress.size() - 1), 0f);
+
+        List<Task> exported = source.taskDao().getAll();
+        List<Task> imported = target.taskDao().getAll();
+        assertEquals(exported.size(), imported.size());
+        for (int i = 0; i < exported.size(); i++) {
+            Task expected = exported.get(i);
+            Task actual = imported.get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.isCompleted(), actual.isCompleted());
+        }
+    }
+
+    // A weekly series with one occurrence completed, one moved and one deleted
+    private void assertSeriesRoundTrip(BackupFormat format) throws IOException {
+        TaskDao dao = source.taskDao();
+        LocalDate start = LocalDate.of(2026, 10, 1);
+        RecurrenceRule rule = new RecurrenceRule("water plants", RecurrenceRule.Frequency.WEEKLY, 1, start);
+        rule.setEndDate(start.plusWeeks(10));
+        rule.setId(dao.insertRule(rule));
+        dao.insert(new Task("plain", start));
+
+        Task completed = rule.toOccurrence(start.plusWeeks(1));
+        completed.setCompleted(true);
+        dao.saveOccurrence(completed);
+        Task moved = rule.toOccurrence(start.plusWeeks(2));
+        moved.setDate(start.plusWeeks(2).plusDays(1));
+        dao.saveOccurrence(moved);
+        Task deleted = rule.toOccurrence(start.plusWeeks(3));
+        deleted.setDeletedAt(1L);
+        dao.saveOccurrence(deleted);
+
+        Path file = folder.getRoot().toPath().resolve("series" + format.getExtension());
+        // The series, the plain task and all three occurrence rows
+        assertEquals(5, TaskBackup.export(dao, file, format, null));
+        assertEquals(5, TaskBackup.importTasks(target.taskDao(), file, format, null));
+
+        List<RecurrenceRule> rules = target.taskDao().getAllRules();
+        assertEquals(1, rules.size());
+        RecurrenceRule imported = rules.get(0);
+        assertEquals(rule.getName(), imported.getName());
+        assertEquals(rule.getFrequency(), imported.getFrequency());
+        assertEquals(rule.getInterval(), imported.getInterval());
+        assertEquals(rule.getStartDate(), imported.getStartDate());
+        assertEquals(rule.getEndDate(), imported.getEndDate());
+
+        LocalDate to = start.plusWeeks(12);
+        List<Task> saved = target.taskDao().getSavedOccurrences(start, to);
+        assertEquals(3, saved.size());
+        for (Task row : saved) {
+            assertEquals(Long.valueOf(imported.getId()), row.getRuleId());
+        }
+        Task deletedRow = target.taskDao().getSavedOccurrences(deleted.getOccurrenceDate(),
+                deleted.getOccurrenceDate().plusDays(1)).get(0);
+        assertNotNull(deletedRow.getDeletedAt());
+
+        // The series shows the same occurrences, by date, as before the round trip
+        List<Task> before = Occurrences.expandUnsaved(dao.getRulesBetween(start, to),
+                dao.getSavedOccurrences(start, to), start, to);
+        List<Task> after = Occurrences.expandUnsaved(rules, saved, start, to);
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).getDate(), after.get(i).getDate());
+        }
+    }
+
+    private static AppDatabase inMemory() {
+        return Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todolistsqlite.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects latency samples per (operation, dataset size) and writes them as JSON
+ * to {@code build/benchmark/<name>.json} so runs can be diffed by tooling.
+ */
+class BenchmarkReport {
+    private final String name;
+    private final List<Result> results = new ArrayList<>();
+
+    BenchmarkReport(String name) {
+        this.name = name;
+    }
+
+    // Comma-separated sizes from a system property, e.g. -Pbenchmark.sizes=10000,100000
+    static int[] datasetSizes(String property, String defaultSizes) {
+        String[] parts = System.getProperty(property, defaultSizes).split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    Result add(String operation, int datasetSize, long[] samplesNanos) {
+        Result result = new Result(operation, datasetSize, samplesNanos);
+        results.add(result);
+        return result;
+    }
+
+    Path write() throws IOException {
+        Path dir = Paths.get(System.getProperty("benchmark.outputDir", "build/benchmark"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name + ".json");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"benchmark\":\"" + name + "\",\"results\":[");
+            for (int i = 0; i < results.size(); i++) {
+                String json = results.get(i).toJson();
+                if (i > 0) writer.write(',');
+                writer.write(json);
+            }
+            writer.write("]}\n");
+        }
+        return file;
+    }
+
+    static class Result {
+        final String operation;
+        final int datasetSize;
+        final int samples;
+        final double opsPerSecond;
+        final double p50Micros;
+        final double p99Micros;
+        // Free-form extra metrics, e.g. rows returned or views inflated
+        private final StringBuilder extra = new StringBuilder();
+
+        Result(String operation, int datasetSize, long[] samplesNanos) {
+            long[] sorted = samplesNanos.clone();
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long sample : sorted) total += sample;
+
+            this.operation = operation;
+            this.datasetSize = datasetSize;
+            this.samples = sorted.length;
+            this.opsPerSecond = total > 0 ? sorted.length / (total / 1e9) : 0;
+            this.p50Micros = percentile(sorted, 0.50) / 1e3;
+            this.p99Micros = percentile(sorted, 0.99) / 1e3;
+        }
+
+        Result with(String key, long value) {
+            extra.append(",\"").append(key).append("\":").append(value);
+            return this;
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        String toJson() {
+            return String.format(Locale.US,
+                    "{\"operation\":\"%s\",\"datasetSize\":%d,\"samples\":%d,"
+                            + "\"opsPerSecond\":%.1f,\"p50Micros\":%.1f,\"p99Micros\":%.1f%s}",
+                    operation, datasetSize, samples, opsPerSecond, p50Micros, p99Micros, extra);
+        }
+    }
+}
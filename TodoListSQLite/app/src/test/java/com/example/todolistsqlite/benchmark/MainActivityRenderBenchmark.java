@@ -0,0 +1,196 @@
+package com.example.todolistsqlite.benchmark;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+import android.widget.Button;
+import android.widget.EditText;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.todolistsqlite.R;
+import com.example.todolistsqlite.activites.MainActivity;
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.metrics.RenderMetrics;
+import com.example.todolistsqlite.models.Task;
+import com.google.android.material.tabs.TabLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opens MainActivity over 100 / 1,000 / 10,000 seeded tasks and records how long each refresh
+ * path takes and how many rows are inflated and bound. Run with
+ * {@code ./gradlew testDebugUnitTest -Pbenchmark [-Pbenchmark.uiSizes=100,1000]};
+ * results go to {@code app/build/benchmark/mainactivity.json}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class MainActivityRenderBenchmark {
+    private static final int LAUNCHES = 5;
+    private static final long TIMEOUT_MS = 60_000;
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 2340;
+
+    // Room refuses main-thread queries, so seeding runs on its own thread
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+    private final LocalDate today = LocalDate.now();
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+        database = AppDatabase.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        dbExecutor.shutdown();
+    }
+
+    @Test
+    public void mainActivityRefresh() throws Exception {
+        BenchmarkReport report = new BenchmarkReport("mainactivity");
+        for (int size : BenchmarkReport.datasetSizes("benchmark.uiSizes", "100,1000,10000")) {
+            int expectedMainItems = dbExecutor.submit(() -> seed(size)).get();
+
+            long[] launchSamples = new long[LAUNCHES];
+            long[] historySamples = new long[LAUNCHES];
+            long[] addSamples = new long[LAUNCHES];
+            long inflatedOnLaunch = 0;
+            long boundOnAdd = 0;
+            for (int i = 0; i < LAUNCHES; i++) {
+                RenderMetrics.reset();
+                long start = System.nanoTime();
+                ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).setup();
+                MainActivity activity = controller.get();
+                RecyclerView taskList = activity.findViewById(R.id.taskRecyclerView);
+                // With no current tasks the list shows a single empty-state row
+                awaitItemCount(activity, taskList, Math.max(expectedMainItems, 1));
+                launchSamples[i] = System.nanoTime() - start;
+                inflatedOnLaunch = RenderMetrics.getCount(RenderMetrics.CREATE_VIEW_HOLDER);
+
+                // One new task today: should rebind a handful of rows, not the whole list
+                long bindsBefore = RenderMetrics.getCount(RenderMetrics.BIND_VIEW_HOLDER);
+                int itemsBefore = taskList.getAdapter().getItemCount();
+                start = System.nanoTime();
+                EditText input = activity.findViewById(R.id.taskNameInput);
+                input.setText("benchmark " + i);
+                Button addButton = activity.findViewById(R.id.addTaskButton);
+                addButton.performClick();
+                awaitItemCountAtLeast(activity, taskList, itemsBefore + 1);
+                addSamples[i] = System.nanoTime() - start;
+                boundOnAdd = RenderMetrics.getCount(RenderMetrics.BIND_VIEW_HOLDER) - bindsBefore;
+                expectedMainItems = taskList.getAdapter().getItemCount();
+
+                TabLayout tabs = activity.findViewById(R.id.tabLayout);
+                RecyclerView historyList = activity.findViewById(R.id.historyRecyclerView);
+                start = System.nanoTime();
+                tabs.getTabAt(1).select();
+                awaitItemCountAtLeast(activity, historyList, 2);
+                historySamples[i] = System.nanoTime() - start;
+
+                controller.pause().stop().destroy();
+            }
+
+            report.add("launchToContent", size, launchSamples)
+                    .with("inflatedViews", inflatedOnLaunch)
+                    .with("refreshTaskListsCalls", RenderMetrics.getCount(RenderMetrics.REFRESH_TASK_LISTS));
+            report.add("addTaskToContent", size, addSamples)
+                    .with("boundRows", boundOnAdd);
+            report.add("historyFirstPage", size, historySamples)
+                    .with("refreshLogListMaxMicros", RenderMetrics.getMaxNanos(RenderMetrics.REFRESH_LOG_LIST) / 1000);
+        }
+        Path file = report.write();
+        assertTrue(file.toFile().length() > 0);
+    }
+
+    // 10% today, 30% over the next 30 days, the rest over the past year. Returns the Main tab's row count.
+    private int seed(int size) {
+        database.clearAllTables();
+        TaskDao dao = database.taskDao();
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>(size);
+        Set<LocalDate> futureDates = new HashSet<>();
+        int todayCount = 0;
+        int futureCount = 0;
+        for (int i = 0; i < size; i++) {
+            int bucket = random.nextInt(10);
+            LocalDate date;
+            if (bucket == 0) {
+                date = today;
+                todayCount++;
+            } else if (bucket <= 3) {
+                date = today.plusDays(1 + random.nextInt(30));
+                futureDates.add(date);
+                futureCount++;
+            } else {
+                date = today.minusDays(1 + random.nextInt(365));
+            }
+            tasks.add(new Task(0, "task " + i, date, random.nextBoolean()));
+        }
+        dao.insertAll(tasks);
+
+        int items = 0;
+        if (todayCount > 0) items += 1 + todayCount;
+        if (futureCount > 0) items += 1 + futureDates.size() + futureCount;
+        return items;
+    }
+
+    private void awaitItemCount(MainActivity activity, RecyclerView list, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (list.getAdapter().getItemCount() != expected) {
+            pump(activity, deadline);
+        }
+        layout(activity);
+    }
+
+    private void awaitItemCountAtLeast(MainActivity activity, RecyclerView list, int minimum) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (list.getAdapter().getItemCount() < minimum) {
+            pump(activity, deadline);
+        }
+        layout(activity);
+    }
+
+    // Lets background queries and diffs finish and runs what they posted to the main thread
+    private void pump(MainActivity activity, long deadline) throws InterruptedException {
+        if (System.currentTimeMillis() > deadline) {
+            fail("Timed out waiting for list content");
+        }
+        Thread.sleep(1);
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    // A measure/layout pass at phone size, which is when RecyclerView inflates and binds rows
+    private void layout(MainActivity activity) {
+        View root = activity.getWindow().getDecorView();
+        root.measure(View.MeasureSpec.makeMeasureSpec(SCREEN_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SCREEN_HEIGHT, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+    }
+}
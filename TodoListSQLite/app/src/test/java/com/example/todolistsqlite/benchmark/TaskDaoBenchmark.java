@@ -0,0 +1,154 @@
+package com.example.todolistsqlite.benchmark;
+
+import static org.junit.Assert.assertTrue;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.models.Task;
+import com.example.todolistsqlite.repository.SearchRanking;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures TaskDao against an in-memory Room database seeded with 10k / 100k / 1M tasks.
+ * Run with {@code ./gradlew testDebugUnitTest -Pbenchmark [-Pbenchmark.sizes=10000,100000]};
+ * results go to {@code app/build/benchmark/taskdao.json}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class TaskDaoBenchmark {
+    private static final int SEED_BATCH = 10_000;
+    private static final int WRITE_SAMPLES = 1_000;
+    private static final int READ_SAMPLES = 200;
+    private static final int WARMUP = 10;
+    private static final String[] WORDS = {"buy", "milk", "call", "email", "report", "gym", "read", "clean", "pay", "plan"};
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    public void taskDao() throws Exception {
+        BenchmarkReport report = new BenchmarkReport("taskdao");
+        for (int size : BenchmarkReport.datasetSizes("benchmark.sizes", "10000,100000,1000000")) {
+            AppDatabase db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                    .allowMainThreadQueries()
+                    .build();
+            try {
+                run(report, db.taskDao(), size);
+            } finally {
+                db.close();
+            }
+        }
+        Path file = report.write();
+        assertTrue(file.toFile().length() > 0);
+    }
+
+    private void run(BenchmarkReport report, TaskDao dao, int size) {
+        Random random = new Random(42);
+        long seedStart = System.nanoTime();
+        seed(dao, size, random);
+        report.add("seed", size, new long[]{System.nanoTime() - seedStart});
+
+        // Writes
+        long[] samples = new long[WRITE_SAMPLES];
+        for (int i = 0; i < WRITE_SAMPLES; i++) {
+            Task task = randomTask(random, i);
+            long start = System.nanoTime();
+            dao.insert(task);
+            samples[i] = System.nanoTime() - start;
+        }
+        report.add("insert", size, samples);
+
+        samples = new long[WRITE_SAMPLES];
+        for (int i = 0; i < WRITE_SAMPLES; i++) {
+            Task task = randomTask(random, i);
+            task.setId(1 + random.nextInt(size));
+            long start = System.nanoTime();
+            dao.update(task);
+            samples[i] = System.nanoTime() - start;
+        }
+        report.add("update", size, samples);
+
+        samples = new long[WRITE_SAMPLES];
+        for (int i = 0; i < WRITE_SAMPLES; i++) {
+            // Ids step through the table so each delete tombstones a distinct row
+            long id = (long) i * (size / WRITE_SAMPLES) + 1;
+            long start = System.nanoTime();
+            dao.softDelete(id, System.currentTimeMillis());
+            samples[i] = System.nanoTime() - start;
+        }
+        report.add("delete", size, samples);
+
+        long purgeStart = System.nanoTime();
+        int purged = dao.purgeDeletedBefore(Long.MAX_VALUE, today, WRITE_SAMPLES);
+        report.add("purgeTombstones", size, new long[]{System.nanoTime() - purgeStart})
+                .with("rows", purged);
+
+        // Reads
+        int getAllSamples = size >= 1_000_000 ? 3 : 10;
+        int[] rows = new int[1];
+        report.add("getAll", size, time(getAllSamples, 1, () -> rows[0] = dao.getAll().size()))
+                .with("rows", rows[0]);
+        report.add("getTasksOn", size, time(READ_SAMPLES, WARMUP, () -> rows[0] = dao.getTasksOn(today).size()))
+                .with("rows", rows[0]);
+        report.add("getTasksAfter", size, time(READ_SAMPLES, WARMUP, () -> rows[0] = dao.getTasksAfter(today).size()))
+                .with("rows", rows[0]);
+        report.add("getTasksBetween30d", size, time(READ_SAMPLES, WARMUP,
+                () -> rows[0] = dao.getTasksBetween(today.minusDays(30), today).size()))
+                .with("rows", rows[0]);
+        report.add("getHistoryPage", size, time(READ_SAMPLES, WARMUP,
+                () -> rows[0] = dao.getHistoryPage(today, Long.MAX_VALUE, 50).size()))
+                .with("rows", rows[0]);
+        report.add("getHistoryPageDeep", size, time(READ_SAMPLES, WARMUP,
+                () -> rows[0] = dao.getHistoryPage(today.minusDays(600), Long.MAX_VALUE, 50).size()))
+                .with("rows", rows[0]);
+        report.add("search", size, time(READ_SAMPLES, WARMUP, () -> rows[0] = SearchRanking.page(
+                dao.search("milk*", SearchRanking.MAX_CANDIDATES + 1), SearchRanking.Cursor.START, 50).tasks.size()))
+                .with("rows", rows[0]);
+    }
+
+    private void seed(TaskDao dao, int size, Random random) {
+        List<Task> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < size; i++) {
+            batch.add(randomTask(random, i));
+            if (batch.size() == SEED_BATCH) {
+                dao.insertAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            dao.insertAll(batch);
+        }
+    }
+
+    // Roughly two years of history and two months ahead, a third of it completed
+    private Task randomTask(Random random, int i) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        LocalDate date = today.plusDays(random.nextInt(790) - 730);
+        return new Task(0, name, date, random.nextInt(3) == 0);
+    }
+
+    private static long[] time(int samples, int warmup, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long[] result = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            result[i] = System.nanoTime() - start;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.todolistsqlite.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the maintenance pass with DatabaseConfig.DEFAULT, which is what a database built without
+ * getInstance reports: 24 hour retention, batches of 500 and archiving after 180 days.
+ */
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DatabaseMaintenanceTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.now(CLOCK);
+    private static final long NOW = CLOCK.millis();
+    private static final String FILE_NAME = "maintenance-test.db";
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private AppDatabase database;
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(FILE_NAME);
+    }
+
+    @Test
+    public void purgesAndArchivesByTheClock() {
+        database = inMemory();
+        TaskDao taskDao = database.taskDao();
+        // More than one batch of each
+        taskDao.insertAll(tasks(1200, TODAY.minusDays(200), true, null));
+        taskDao.insertAll(tasks(10, TODAY.minusDays(179), true, null));
+        taskDao.insertAll(tasks(700, TODAY.minusDays(5), false, NOW - TimeUnit.HOURS.toMillis(25)));
+        taskDao.insertAll(tasks(5, TODAY.minusDays(5), false, NOW - TimeUnit.HOURS.toMillis(23)));
+        List<DailySummary> summaries = taskDao.getDailySummaries(TODAY.minusDays(365), TODAY);
+
+        DatabaseMaintenance.run(database, CLOCK);
+
+        assertEquals(1200, taskDao.countArchived());
+        assertEquals(10, taskDao.count());
+        assertEquals(5, queryLong("SELECT COUNT(*) FROM tasks WHERE deleted_at IS NOT NULL"));
+        assertEquals(summaries, taskDao.getDailySummaries(TODAY.minusDays(365), TODAY));
+    }
+
+    @Test
+    public void switchesToIncrementalVacuumThenReleasesFreePages() {
+        database = inMemory();
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        // A database from before incremental auto-vacuum
+        db.execSQL("PRAGMA auto_vacuum = NONE");
+        db.execSQL("VACUUM");
+        assertEquals(0, queryLong("PRAGMA auto_vacuum"));
+
+        TaskDao taskDao = database.taskDao();
+        long expired = NOW - TimeUnit.HOURS.toMillis(48);
+        taskDao.insertAll(tasks(2000, TODAY, false, expired));
+        DatabaseMaintenance.run(database, CLOCK);
+        // Nearly the whole file was tombstones, so it is vacuumed once and switched
+        assertEquals(2, queryLong("PRAGMA auto_vacuum"));
+        assertEquals(0, queryLong("PRAGMA freelist_count"));
+
+        taskDao.insertAll(tasks(2000, TODAY, false, expired));
+        long pages = queryLong("PRAGMA page_count");
+        DatabaseMaintenance.run(database, CLOCK);
+        assertEquals(0, queryLong("PRAGMA freelist_count"));
+        assertTrue(queryLong("PRAGMA page_count") < pages);
+    }
+
+    @Test
+    public void checkpointTruncatesTheWal() {
+        context.deleteDatabase(FILE_NAME);
+        database = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, FILE_NAME),
+                        DatabaseConfig.DEFAULT)
+                .allowMainThreadQueries()
+                .build();
+        database.taskDao().insertAll(tasks(500, TODAY, false, null));
+        File wal = new File(context.getDatabasePath(FILE_NAME).getPath() + "-wal");
+        assumeTrue("WAL not in use", wal.length() > 0);
+
+        DatabaseMaintenance.run(database, CLOCK);
+
+        assertEquals(0, wal.length());
+        assertEquals(500, database.taskDao().count());
+    }
+
+    @NonNull
+    private AppDatabase inMemory() {
+        return AppDatabase.configure(Room.inMemoryDatabaseBuilder(context, AppDatabase.class),
+                        DatabaseConfig.DEFAULT)
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @NonNull
+    private static List<Task> tasks(int count, @NonNull LocalDate date, boolean completed, Long deletedAt) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("maintenance task number " + i + " with a reasonably long name", date);
+            task.setCompleted(completed);
+            task.setDeletedAt(deletedAt);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private long queryLong(@NonNull String sql) {
+        try (Cursor cursor = database.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.todolistsqlite.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upgrades a database written by the first release through every migration. Room validates the
+ * migrated schema against the current entities when it opens, so a missing column or index fails
+ * here; the checks below cover the data and the triggers Room does not know about.
+ */
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class MigrationTest {
+    private static final String NAME = "migration-test.db";
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    private Context context;
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(NAME);
+    }
+
+    @Test
+    public void migratesFromVersion1ToCurrent() {
+        // The first release stored dates with its display format, in the device locale
+        String legacy = DAY.format(DateTimeFormatter.ofPattern("dd MMM, yyyy"));
+        createVersion1(
+                "('pay rent', '" + legacy + "', 1)",
+                "('water plants', '" + DAY.plusDays(1) + "', 0)",
+                "('call home', '" + DAY.plusDays(1) + "', 1)",
+                "('someday', NULL, 0)");
+
+        database = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, NAME),
+                        new DatabaseConfig.Builder().setWalEnabled(false).build())
+                .addMigrations(Migrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        TaskDao taskDao = database.taskDao();
+
+        Map<String, Task> tasks = new HashMap<>();
+        for (Task task : taskDao.getAll()) {
+            tasks.put(task.getName(), task);
+        }
+        assertEquals(4, tasks.size());
+        assertEquals(DAY, tasks.get("pay rent").getDate());
+        assertTrue(tasks.get("pay rent").isCompleted());
+        assertEquals(DAY.plusDays(1), tasks.get("water plants").getDate());
+        assertNull(tasks.get("someday").getDate());
+
+        // Backfilled by v6, then kept by the v9 triggers
+        assertEquals(Arrays.asList(new DailySummary(DAY, 1, 1), new DailySummary(DAY.plusDays(1), 2, 1)),
+                taskDao.getDailySummaries(DAY, DAY.plusDays(2)));
+        taskDao.insert(new Task("buy milk", DAY));
+        assertEquals(new DailySummary(DAY, 2, 1), taskDao.getDailySummaries(DAY, DAY.plusDays(1)).get(0));
+
+        // Rebuilt by v5 and synced for new rows
+        assertEquals(1, taskDao.search("rent*", 10).size());
+        assertEquals(1, taskDao.search("milk*", 10).size());
+
+        // The archive from v9 leaves the summary alone
+        List<DailySummary> summaries = taskDao.getDailySummaries(DAY, DAY.plusDays(2));
+        assertEquals(2, taskDao.archiveCompletedBefore(DAY.plusDays(2), 100));
+        assertEquals(summaries, taskDao.getDailySummaries(DAY, DAY.plusDays(2)));
+        assertEquals(3, countTriggers("daily_summary_%"));
+    }
+
+    private void createVersion1(@NonNull String... rows) {
+        SupportSQLiteOpenHelper helper = new FrameworkSQLiteOpenHelperFactory().create(
+                SupportSQLiteOpenHelper.Configuration.builder(context)
+                        .name(NAME)
+                        .callback(new SupportSQLiteOpenHelper.Callback(1) {
+                            @Override
+                            public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                                db.execSQL("CREATE TABLE IF NOT EXISTS `tasks` (`id` INTEGER PRIMARY KEY "
+                                        + "AUTOINCREMENT NOT NULL, `name` TEXT, `date` TEXT, `completed` INTEGER NOT NULL)");
+                            }
+
+                            @Override
+                            public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                            }
+                        })
+                        .build());
+        SupportSQLiteDatabase db = helper.getWritableDatabase();
+        for (String row : rows) {
+            db.execSQL("INSERT INTO tasks (name, date, completed) VALUES " + row);
+        }
+        helper.close();
+    }
+
+    private int countTriggers(@NonNull String pattern) {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger' AND name LIKE ?",
+                new Object[]{pattern})) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
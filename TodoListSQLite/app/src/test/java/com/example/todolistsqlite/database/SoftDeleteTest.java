@@ -0,0 +1,171 @@
+package com.example.todolistsqlite.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.SearchHit;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class SoftDeleteTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+    private static final LocalDate START = TODAY.minusDays(10);
+    private static final LocalDate END = TODAY.plusDays(10);
+
+    private AppDatabase database;
+    private TaskDao taskDao;
+    private final List<Long> ids = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        database = AppDatabase.configure(Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(),
+                        AppDatabase.class), new DatabaseConfig.Builder().setWalEnabled(false).build())
+                .allowMainThreadQueries()
+                .build();
+        taskDao = database.taskDao();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Task task = new Task("errand " + i, START.plusDays(i % 20));
+            task.setCompleted(i % 2 == 0);
+            tasks.add(task);
+        }
+        ids.addAll(taskDao.insertAll(tasks));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void deletedTasksLeaveReadsAndSummaryUntilRestored() {
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, END);
+        Task first = taskDao.getTask(ids.get(0));
+        Task second = taskDao.getTask(ids.get(1));
+
+        assertEquals(1, taskDao.softDelete(first.getId(), 100L));
+        assertEquals(1, taskDao.softDelete(second.getId(), 100L));
+        assertEquals(0, taskDao.softDelete(first.getId(), 200L));
+
+        assertEquals(38, taskDao.count());
+        assertFalse(containsId(taskDao.getAll(), first.getId()));
+        assertFalse(containsId(taskDao.getTasksOn(first.getDate()), first.getId()));
+        assertFalse(containsId(taskDao.getHistoryPage(TODAY.minusDays(1), Long.MAX_VALUE, 100), first.getId()));
+        for (SearchHit hit : taskDao.search("errand*", 100)) {
+            assertTrue(hit.task.getId() != first.getId() && hit.task.getId() != second.getId());
+        }
+        assertEquals(summaryWithout(summaries, first, second), taskDao.getDailySummaries(START, END));
+
+        assertEquals(2, taskDao.restoreDeletedAt(100L));
+        assertEquals(40, taskDao.count());
+        assertTrue(containsId(taskDao.getTasksOn(first.getDate()), first.getId()));
+        assertEquals(summaries, taskDao.getDailySummaries(START, END));
+    }
+
+    @Test
+    public void purgeRemovesOnlyExpiredTombstonesInBatches() {
+        for (int i = 0; i < 25; i++) {
+            taskDao.softDelete(ids.get(i), 100L);
+        }
+        for (int i = 25; i < 30; i++) {
+            taskDao.softDelete(ids.get(i), 300L);
+        }
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, END);
+
+        assertEquals(10, taskDao.purgeDeletedBefore(200L, TODAY, 10));
+        assertEquals(10, taskDao.purgeDeletedBefore(200L, TODAY, 10));
+        assertEquals(5, taskDao.purgeDeletedBefore(200L, TODAY, 10));
+        assertEquals(0, taskDao.purgeDeletedBefore(200L, TODAY, 10));
+
+        // Purging a tombstone changes no count; the newer ones are still there to restore
+        assertEquals(summaries, taskDao.getDailySummaries(START, END));
+        assertEquals(5, countTombstones());
+        assertEquals(5, taskDao.restoreDeletedAt(300L));
+        assertEquals(15, taskDao.count());
+    }
+
+    @Test
+    public void occurrenceTombstonesSurvivePurgeWhileTheSeriesCouldShowThem() {
+        long open = taskDao.insertRule(new RecurrenceRule("stretch", RecurrenceRule.Frequency.DAILY, 1, START));
+        long ended = taskDao.insertRule(new RecurrenceRule("water", RecurrenceRule.Frequency.DAILY, 1, START));
+        taskDao.saveOccurrence(occurrence(open, TODAY.minusDays(3), 100L));
+        taskDao.saveOccurrence(occurrence(open, TODAY.plusDays(2), 100L));
+        taskDao.saveOccurrence(occurrence(ended, TODAY.plusDays(3), null));
+        taskDao.endSeriesBefore(ended, TODAY.plusDays(1), 100L);
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, END);
+
+        assertEquals(2, taskDao.purgeDeletedBefore(200L, TODAY, 100));
+
+        // Only the future occurrence of the open series keeps its tombstone, so it stays hidden
+        List<Task> saved = taskDao.getSavedOccurrences(START, END);
+        assertEquals(1, saved.size());
+        assertEquals(Long.valueOf(open), saved.get(0).getRuleId());
+        assertEquals(TODAY.plusDays(2), saved.get(0).getOccurrenceDate());
+        assertEquals(summaries, taskDao.getDailySummaries(START, END));
+    }
+
+    @NonNull
+    private static Task occurrence(long ruleId, @NonNull LocalDate date, Long deletedAt) {
+        Task task = new Task("occurrence", date);
+        task.setRuleId(ruleId);
+        task.setOccurrenceDate(date);
+        task.setDeletedAt(deletedAt);
+        return task;
+    }
+
+    private static boolean containsId(@NonNull List<Task> tasks, long id) {
+        for (Task task : tasks) {
+            if (task.getId() == id) return true;
+        }
+        return false;
+    }
+
+    // The summary as it should read once these tasks stop counting
+    @NonNull
+    private static List<DailySummary> summaryWithout(@NonNull List<DailySummary> summaries, @NonNull Task... removed) {
+        List<DailySummary> expected = new ArrayList<>();
+        for (DailySummary summary : summaries) {
+            int total = summary.getTotal();
+            int completed = summary.getCompleted();
+            for (Task task : removed) {
+                if (task.getDate().equals(summary.getDate())) {
+                    total--;
+                    completed -= task.isCompleted() ? 1 : 0;
+                }
+            }
+            if (total > 0) {
+                expected.add(new DailySummary(summary.getDate(), total, completed));
+            }
+        }
+        return expected;
+    }
+
+    private int countTombstones() {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM tasks WHERE deleted_at IS NOT NULL", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
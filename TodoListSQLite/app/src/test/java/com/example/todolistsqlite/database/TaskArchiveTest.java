@@ -0,0 +1,153 @@
+package com.example.todolistsqlite.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.models.DailySummary;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class TaskArchiveTest {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate CUTOFF = START.plusDays(20);
+    private static final String[] NAMES = {"water plants", "pay rent", null, "call home"};
+
+    private AppDatabase database;
+    private TaskDao taskDao;
+
+    @Before
+    public void setUp() {
+        // configure() installs the daily_summary triggers the archive has to leave alone
+        database = AppDatabase.configure(Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(),
+                        AppDatabase.class), new DatabaseConfig.Builder().setWalEnabled(false).build())
+                .allowMainThreadQueries()
+                .build();
+        taskDao = database.taskDao();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Task task = new Task(NAMES[i % NAMES.length], START.plusDays(i % 30));
+            task.setCompleted(i % 3 != 0);
+            tasks.add(task);
+        }
+        taskDao.insertAll(tasks);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void archivingMovesOldCompletedTasksInBatchesAndKeepsStatistics() {
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, START.plusDays(30));
+        int total = taskDao.count();
+
+        int batches = 0;
+        while (taskDao.archiveCompletedBefore(CUTOFF, 7) == 7) {
+            batches++;
+        }
+        assertTrue(batches > 1);
+
+        assertEquals(summaries, taskDao.getDailySummaries(START, START.plusDays(30)));
+        assertEquals(total, taskDao.count() + taskDao.countArchived());
+        for (Task task : taskDao.getAll()) {
+            assertFalse(task.isCompleted() && task.getDate().isBefore(CUTOFF));
+        }
+        // Each distinct name stored once
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM task_names", null)) {
+            cursor.moveToFirst();
+            assertEquals(3, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void archivedTasksReadBackInHistoryOrderAndCanBeRestored() {
+        while (taskDao.archiveCompletedBefore(CUTOFF, 50) == 50) {
+            // keep going
+        }
+        assertEquals(CUTOFF.minusDays(1), taskDao.getNewestArchivedDate());
+
+        List<Task> page = taskDao.getArchivePage(CUTOFF, Long.MAX_VALUE, 500);
+        assertEquals(taskDao.countArchived(), page.size());
+        for (int i = 1; i < page.size(); i++) {
+            Task newer = page.get(i - 1);
+            Task older = page.get(i);
+            assertTrue(newer.getDate().isAfter(older.getDate())
+                    || (newer.getDate().equals(older.getDate()) && newer.getId() > older.getId()));
+            assertTrue(older.isCompleted());
+        }
+
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, START.plusDays(30));
+        Task archived = page.get(0);
+        assertNull(taskDao.getTask(archived.getId()));
+        assertTrue(taskDao.unarchive(archived.getId()));
+        assertEquals(archived, taskDao.getTask(archived.getId()));
+        assertEquals(summaries, taskDao.getDailySummaries(START, START.plusDays(30)));
+        assertFalse(taskDao.unarchive(archived.getId()));
+    }
+
+    @Test
+    public void clearingCompletedHistoryCoversTheArchive() {
+        List<DailySummary> summaries = taskDao.getDailySummaries(START, START.plusDays(30));
+        taskDao.archiveCompletedBefore(CUTOFF, 1000);
+        int archived = taskDao.countArchived();
+        assertTrue(archived > 0);
+
+        LocalDate clearBefore = CUTOFF.plusDays(5);
+        int cleared = taskDao.deleteCompletedBefore(clearBefore, 42L);
+        assertTrue(cleared > archived);
+        assertEquals(0, taskDao.countArchived());
+        assertTrue(taskDao.getArchivePage(clearBefore, Long.MAX_VALUE, 500).isEmpty());
+        for (DailySummary summary : taskDao.getDailySummaries(START, clearBefore.minusDays(1))) {
+            assertEquals(0, summary.getCompleted());
+        }
+
+        // Undo brings the archived ones back too, and the summary with them
+        assertEquals(cleared, taskDao.restoreDeletedAt(42L));
+        assertEquals(summaries, taskDao.getDailySummaries(START, START.plusDays(30)));
+
+        int total = taskDao.count();
+        taskDao.deleteCompletedBefore(clearBefore, 42L);
+        assertEquals(cleared, taskDao.purgeDeletedBefore(43L, clearBefore, 1000));
+        assertEquals(total - cleared, taskDao.count());
+        assertEquals(0, taskDao.countArchived());
+    }
+
+    @Test
+    public void exportPagesIncludeTheArchive() {
+        int total = taskDao.count();
+        taskDao.archiveCompletedBefore(CUTOFF, 1000);
+
+        int rows = 0;
+        long lastId = 0;
+        try (Cursor cursor = taskDao.exportPage(0, 1000)) {
+            while (cursor.moveToNext()) {
+                long id = cursor.getLong(cursor.getColumnIndexOrThrow("id"));
+                assertTrue(id > lastId);
+                lastId = id;
+                rows++;
+            }
+        }
+        assertEquals(total, rows);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.todolistsqlite.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class QueryStatsTest {
+    private static final long MS = 1_000_000L;
+
+    interface SampleDao {
+        List<Integer> list(int rows);
+
+        int update(int rows);
+
+        long insert();
+    }
+
+    @Test
+    public void latenciesFallIntoTheirBuckets() {
+        QueryStats stats = new QueryStats();
+        for (long micros : new long[]{100, 300, 300, 20_000, 100_000}) {
+            stats.record("getHistoryPage", micros * 1000, 50);
+        }
+
+        QueryStats.MethodStats history = stats.get("getHistoryPage");
+        assertArrayEquals(new long[]{1, 2, 0, 0, 0, 0, 0, 1, 0, 1}, history.getBuckets());
+        assertEquals(5, history.getCount());
+        assertEquals(250, history.getRows());
+        assertEquals(100 * MS, history.getMaxNanos());
+        assertTrue(stats.dump(), stats.dump().contains("getHistoryPage calls=5 rows=250 avg=24.14ms p50<=0.50ms p99<=>64ms"));
+    }
+
+    @Test
+    public void slowLogKeepsTheNewestCalls() {
+        QueryStats stats = new QueryStats();
+        for (int i = 0; i < 60; i++) {
+            stats.beginCall();
+            // Only the last few statements of a call are kept
+            for (int j = 0; j < 7; j++) {
+                stats.onStatement("SELECT " + j);
+            }
+            stats.record("slow" + i, 20 * MS, i);
+        }
+        stats.record("fast", MS, 1);
+
+        List<QueryStats.SlowQuery> slow = stats.getSlowQueries();
+        assertEquals(QueryStats.DEFAULT_SLOW_LOG_CAPACITY, slow.size());
+        assertEquals("slow10", slow.get(0).method);
+        assertEquals("slow59", slow.get(slow.size() - 1).method);
+        assertEquals(Arrays.asList("SELECT 2", "SELECT 3", "SELECT 4", "SELECT 5", "SELECT 6"),
+                slow.get(0).statements);
+        assertTrue(stats.dump().startsWith("statements=420"));
+    }
+
+    @Test
+    public void timedDaoRecordsEachCallWithItsRowCount() {
+        // Every call is slow, so the log shows the SQL each one ran
+        QueryStats stats = new QueryStats(0, 10);
+        SampleDao dao = TimedDao.wrap(SampleDao.class, new SampleDao() {
+            @Override
+            public List<Integer> list(int rows) {
+                stats.onStatement("SELECT " + rows);
+                return new ArrayList<>(Collections.nCopies(rows, 0));
+            }
+
+            @Override
+            public int update(int rows) {
+                stats.onStatement("UPDATE " + rows);
+                return rows;
+            }
+
+            @Override
+            public long insert() {
+                stats.onStatement("INSERT");
+                return 42;
+            }
+        }, stats);
+
+        dao.list(3);
+        dao.list(4);
+        assertEquals(5, dao.update(5));
+        assertEquals(42, dao.insert());
+
+        assertEquals(2, stats.get("list").getCount());
+        assertEquals(7, stats.get("list").getRows());
+        assertEquals(5, stats.get("update").getRows());
+        assertEquals(1, stats.get("insert").getRows());
+        List<QueryStats.SlowQuery> slow = stats.getSlowQueries();
+        assertEquals(4, slow.size());
+        assertEquals(Collections.singletonList("SELECT 4"), slow.get(1).statements);
+
+        stats.reset();
+        assertEquals(String.format("statements=0%nslow (>= 0.0ms), oldest first:%n"), stats.dump());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.todolistsqlite.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RecurrenceRuleTest {
+    private static final LocalDate START = LocalDate.of(2026, 1, 31);
+
+    @Test
+    public void everyNDaysStartsAtFirstOccurrenceInWindow() {
+        RecurrenceRule rule = rule(RecurrenceRule.Frequency.DAILY, 3);
+        assertEquals(Arrays.asList(LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 6)),
+                rule.occurrencesBetween(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 9)));
+    }
+
+    @Test
+    public void weeklyKeepsTheStartWeekday() {
+        RecurrenceRule rule = rule(RecurrenceRule.Frequency.WEEKLY, 2);
+        for (LocalDate date : rule.occurrencesBetween(START, START.plusYears(1))) {
+            assertEquals(START.getDayOfWeek(), date.getDayOfWeek());
+        }
+        assertEquals(Collections.singletonList(LocalDate.of(2026, 2, 14)),
+                rule.occurrencesBetween(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 20)));
+    }
+
+    @Test
+    public void monthlyClampsToShortMonthsWithoutDrifting() {
+        RecurrenceRule rule = rule(RecurrenceRule.Frequency.MONTHLY, 1);
+        assertEquals(Arrays.asList(LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30)),
+                rule.occurrencesBetween(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 5, 1)));
+    }
+
+    @Test
+    public void windowBeforeStartOrAfterEndIsEmpty() {
+        RecurrenceRule rule = rule(RecurrenceRule.Frequency.DAILY, 1);
+        rule.setEndDate(START.plusDays(2));
+        assertTrue(rule.occurrencesBetween(START.minusDays(10), START).isEmpty());
+        assertEquals(3, rule.occurrencesBetween(START.minusDays(10), START.plusDays(10)).size());
+        assertTrue(rule.occursOn(START.plusDays(2)));
+        assertTrue(rule.occurrencesBetween(START.plusDays(3), START.plusDays(30)).isEmpty());
+    }
+
+    @Test
+    public void savedOccurrencesReplaceComputedOnes() {
+        RecurrenceRule rule = rule(RecurrenceRule.Frequency.DAILY, 1);
+        LocalDate day = START.plusDays(1);
+        // Moved to another day, so only its occurrence date identifies it
+        Task moved = new Task(7, "moved", day.plusDays(5), false);
+        moved.setRuleId(rule.getId());
+        moved.setOccurrenceDate(day);
+
+        List<Task> unsaved = Occurrences.expandUnsaved(Collections.singletonList(rule),
+                Collections.singletonList(moved), START, START.plusDays(3));
+        assertEquals(2, unsaved.size());
+        assertEquals(START, unsaved.get(0).getDate());
+        assertEquals(START.plusDays(2), unsaved.get(1).getDate());
+        assertTrue(unsaved.get(0).isUnsavedOccurrence());
+    }
+
+    @Test
+    public void mergePlacesOccurrencesBeforeCompletedTasksOfTheirDate() {
+        Task open = new Task(1, "open", START, false);
+        Task done = new Task(2, "done", START, true);
+        Task later = new Task(3, "later", START.plusDays(1), false);
+        Task occurrence = rule(RecurrenceRule.Frequency.DAILY, 1).toOccurrence(START);
+
+        List<Task> merged = Occurrences.merge(Arrays.asList(open, done, later),
+                Collections.singletonList(occurrence));
+        assertEquals(Arrays.asList(open, occurrence, done, later), merged);
+    }
+
+    private static RecurrenceRule rule(RecurrenceRule.Frequency frequency, int interval) {
+        return new RecurrenceRule(5, "water plants", frequency, interval, START, null);
+    }
+}
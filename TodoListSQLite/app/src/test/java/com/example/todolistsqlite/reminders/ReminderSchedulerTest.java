@@ -0,0 +1,185 @@
+package com.example.todolistsqlite.reminders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolistsqlite.dao.TaskDao;
+import com.example.todolistsqlite.database.AppDatabase;
+import com.example.todolistsqlite.models.RecurrenceRule;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.SQLiteMode;
+import org.robolectric.shadows.ShadowAlarmManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class ReminderSchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final FakeClock clock = new FakeClock(TODAY.atTime(10, 0).toInstant(ZoneOffset.UTC));
+    private AppDatabase database;
+    private TaskDao taskDao;
+    private ReminderScheduler reminders;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        taskDao = database.taskDao();
+        reminders = new ReminderScheduler(context, taskDao, clock);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void onlyTheEarliestDueDateIsArmed() {
+        insert("later", TODAY.plusDays(7), false);
+        insert("soon", TODAY.plusDays(2), false);
+        assertArmedFor(TODAY.plusDays(2));
+
+        insert("sooner", TODAY.plusDays(1), false);
+        assertArmedFor(TODAY.plusDays(1));
+        // Too long overdue to remind of
+        insert("last month", TODAY.minusDays(30), false);
+        assertArmedFor(TODAY.plusDays(1));
+    }
+
+    @Test
+    public void aTaskAlreadyDueGetsACatchUpReminder() {
+        insert("tomorrow", TODAY.plusDays(1), false);
+        // Past today's reminder time, so the alarm is set for a time that has passed and fires now
+        Task late = insert("late", TODAY, false);
+        assertAlarmAt(TODAY);
+
+        reminders.onAlarm();
+        List<Notification> posted = shadowOf(context.getSystemService(NotificationManager.class)).getAllNotifications();
+        assertEquals(1, posted.size());
+        assertEquals("1 task due", posted.get(0).extras.getCharSequence(Notification.EXTRA_TITLE).toString());
+        assertArmedFor(TODAY.plusDays(1));
+
+        // Editing it again without changing its date does not remind twice
+        reminders.onDueDatesChanged(ReminderScheduler.dueDate(late), ReminderScheduler.dueDate(late));
+        assertArmedFor(TODAY.plusDays(1));
+    }
+
+    @Test
+    public void losingTheLastTaskOfTheArmedDateMovesToTheNextDate() {
+        Task soon = insert("soon", TODAY.plusDays(1), false);
+        insert("later", TODAY.plusDays(4), false);
+        assertArmedFor(TODAY.plusDays(1));
+
+        Task done = new Task(soon);
+        done.setCompleted(true);
+        taskDao.update(done);
+        reminders.onDueDatesChanged(ReminderScheduler.dueDate(soon), ReminderScheduler.dueDate(done));
+        assertArmedFor(TODAY.plusDays(4));
+
+        taskDao.moveAll(TODAY.plusDays(4), TODAY.plusDays(9));
+        reminders.onDueDatesChanged(TODAY.plusDays(4), TODAY.plusDays(9));
+        assertArmedFor(TODAY.plusDays(9));
+    }
+
+    @Test
+    public void alarmPostsOneNotificationForEverythingDueThenRearms() {
+        insert("a", TODAY.plusDays(1), false);
+        insert("b", TODAY.plusDays(2), false);
+        insert("c", TODAY.plusDays(2), false);
+        insert("done", TODAY.plusDays(2), true);
+        insert("next", TODAY.plusDays(5), false);
+
+        // Fires a day late: both days go into one reminder
+        clock.now = TODAY.plusDays(2).atTime(9, 30).toInstant(ZoneOffset.UTC);
+        reminders.onAlarm();
+
+        List<Notification> posted = shadowOf(context.getSystemService(NotificationManager.class)).getAllNotifications();
+        assertEquals(1, posted.size());
+        assertEquals("3 tasks due", posted.get(0).extras.getCharSequence(Notification.EXTRA_TITLE).toString());
+        assertArmedFor(TODAY.plusDays(5));
+
+        // Nothing new is due, so a repeated alarm stays quiet
+        reminders.onAlarm();
+        assertEquals(1, shadowOf(context.getSystemService(NotificationManager.class)).size());
+    }
+
+    @Test
+    public void seriesOccurrencesWithoutRowsAreDue() {
+        insert("one-off", TODAY.plusDays(40), false);
+        taskDao.insertRule(new RecurrenceRule("weekly", RecurrenceRule.Frequency.WEEKLY, 1, TODAY.plusDays(30)));
+        reminders.rebuild();
+        assertArmedFor(TODAY.plusDays(30));
+    }
+
+    @NonNull
+    private Task insert(String name, LocalDate date, boolean completed) {
+        Task task = new Task(name, date);
+        task.setCompleted(completed);
+        task.setId(taskDao.insert(task));
+        reminders.onDueDatesChanged(null, ReminderScheduler.dueDate(task));
+        return task;
+    }
+
+    private void assertArmedFor(LocalDate date) {
+        assertAlarmAt(date);
+        assertTrue(alarmTime(date) > clock.millis());
+    }
+
+    private void assertAlarmAt(LocalDate date) {
+        ShadowAlarmManager alarms = shadowOf(context.getSystemService(AlarmManager.class));
+        assertEquals(1, alarms.getScheduledAlarms().size());
+        assertEquals(alarmTime(date), alarms.getNextScheduledAlarm().getTriggerAtMs());
+    }
+
+    private static long alarmTime(LocalDate date) {
+        return date.atTime(ReminderScheduler.DUE_TIME).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static final class FakeClock extends Clock {
+        Instant now;
+
+        FakeClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
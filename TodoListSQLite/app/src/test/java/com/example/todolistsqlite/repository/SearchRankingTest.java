@@ -0,0 +1,83 @@
+package com.example.todolistsqlite.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.todolistsqlite.models.SearchHit;
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SearchRankingTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    public void rareWordsInShortNamesRankFirst() {
+        // One phrase over 10 rows averaging 4 tokens, found in 2 of them
+        SearchHit longName = hit(1, 9, 1, 2);
+        SearchHit shortName = hit(2, 2, 1, 2);
+        SearchHit repeated = hit(3, 4, 2, 2);
+        SearchRanking.Page page = SearchRanking.page(Arrays.asList(longName, shortName, repeated),
+                SearchRanking.Cursor.START, 10);
+
+        assertEquals(Arrays.asList(repeated.task, shortName.task, longName.task), page.tasks);
+        assertTrue(page.endReached);
+    }
+
+    @Test
+    public void keysetPagesMatchOneRanking() {
+        List<SearchHit> hits = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            // Equal scores in pairs exercise the id tie-break
+            hits.add(hit(id, 2 + (id / 2) % 7, 1 + id % 3, 5));
+        }
+        List<Task> all = SearchRanking.page(hits, SearchRanking.Cursor.START, 100).tasks;
+
+        List<Task> paged = new ArrayList<>();
+        SearchRanking.Cursor cursor = SearchRanking.Cursor.START;
+        SearchRanking.Page page;
+        do {
+            page = SearchRanking.page(hits, cursor, 4);
+            paged.addAll(page.tasks);
+            cursor = page.next;
+        } while (!page.endReached);
+
+        assertEquals(25, all.size());
+        assertEquals(all, paged);
+        assertFalse(SearchRanking.page(hits, SearchRanking.Cursor.START, 24).endReached);
+    }
+
+    @Test
+    public void matchesPastTheCandidateCapAreLeftOutAndFlagged() {
+        List<SearchHit> hits = new ArrayList<>();
+        // Newest first, as the DAO returns them; the oldest one scores best but is past the cap
+        for (int id = SearchRanking.MAX_CANDIDATES + 1; id >= 1; id--) {
+            hits.add(hit(id, id == 1 ? 1 : 8, 1, 5));
+        }
+        SearchRanking.Page page = SearchRanking.page(hits, SearchRanking.Cursor.START, 10);
+        assertTrue(page.truncated);
+        assertFalse(page.tasks.contains(hits.get(SearchRanking.MAX_CANDIDATES).task));
+
+        assertFalse(SearchRanking.page(hits.subList(0, SearchRanking.MAX_CANDIDATES),
+                SearchRanking.Cursor.START, 10).truncated);
+    }
+
+    // matchinfo('pcnalx') for one phrase and one column: 10 rows, 4 tokens on average
+    private static SearchHit hit(long id, int length, int hitsInRow, int rowsWithHit) {
+        ByteBuffer info = ByteBuffer.allocate(8 * 4).order(ByteOrder.nativeOrder());
+        info.putInt(1).putInt(1).putInt(10).putInt(4).putInt(length)
+                .putInt(hitsInRow).putInt(hitsInRow * rowsWithHit).putInt(rowsWithHit);
+        SearchHit hit = new SearchHit();
+        hit.task = new Task(id, "task " + id, TODAY, false);
+        hit.matchinfo = info.array();
+        return hit;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todolistsqlite.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.todolistsqlite.models.Task;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TaskIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    public void slicesMatchASortedListUnderRandomEdits() {
+        Random random = new Random(11);
+        TaskIndex index = TaskIndex.EMPTY;
+        Map<Long, Task> model = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                index = index.remove(id);
+                model.remove(id);
+            } else {
+                Task task = new Task(id, "task " + id, TODAY.plusDays(random.nextInt(60) - 30), random.nextBoolean());
+                index = index.put(task);
+                model.put(id, task);
+            }
+        }
+        long today = TODAY.toEpochDay();
+        assertEquals(sorted(model, today, Long.MAX_VALUE, false), index.ascending(today, Long.MAX_VALUE));
+        assertEquals(sorted(model, Long.MIN_VALUE, today, true), index.descending(Long.MIN_VALUE, today));
+        assertEquals(sorted(model, today, today, false), index.on(TODAY));
+    }
+
+    @Test
+    public void earlierVersionsAreUnaffectedByLaterEdits() {
+        Task task = new Task(1, "a", TODAY, false);
+        TaskIndex before = TaskIndex.EMPTY.put(task);
+        Task moved = new Task(task);
+        moved.setDate(TODAY.plusDays(3));
+        TaskIndex after = before.put(moved);
+
+        assertEquals(Arrays.asList(task), before.on(TODAY));
+        assertTrue(after.on(TODAY).isEmpty());
+        assertEquals(Long.valueOf(TODAY.plusDays(3).toEpochDay()), after.dayOf(1));
+    }
+
+    @Test
+    public void replacingDaysWithTheSameTasksKeepsTheIndex() {
+        List<Task> tasks = Arrays.asList(new Task(1, "a", TODAY, true), new Task(2, "b", TODAY, false),
+                new Task(3, "c", TODAY.plusDays(1), false));
+        TaskIndex index = TaskIndex.EMPTY.replaceDays(TODAY.toEpochDay(), Long.MAX_VALUE, tasks);
+
+        assertSame(index, index.replaceDays(TODAY.toEpochDay(), Long.MAX_VALUE, new ArrayList<>(tasks)));
+        // Incomplete first within a day
+        assertEquals(Arrays.asList(tasks.get(1), tasks.get(0)), index.on(TODAY));
+
+        TaskIndex emptied = index.replaceDays(TODAY.toEpochDay() + 1, Long.MAX_VALUE, new ArrayList<>());
+        assertEquals(2, emptied.ascending(Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertEquals(null, emptied.dayOf(3));
+    }
+
+    private static List<Task> sorted(Map<Long, Task> model, long fromDay, long toDay, boolean descending) {
+        Comparator<Task> byDay = Comparator.comparingLong(task -> task.getDate().toEpochDay());
+        if (descending) byDay = byDay.reversed();
+        List<Task> result = new ArrayList<>();
+        for (Task task : model.values()) {
+            long day = task.getDate().toEpochDay();
+            if (day >= fromDay && day <= toDay) result.add(task);
+        }
+        result.sort(byDay.thenComparing(TaskIndex.DAY_ORDER));
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todolistsqlite.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.todolistsqlite.models.BucketCount;
+import com.example.todolistsqlite.models.Task;
+import com.example.todolistsqlite.models.TaskCounts;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class TaskStoreTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    public void rolloverMovesTheDaysBetweenDatesAndTheirCounts() {
+        Task yesterday = new Task(1, "a", TODAY.minusDays(1), true);
+        Task today = new Task(2, "b", TODAY, true);
+        Task tomorrow = new Task(3, "c", TODAY.plusDays(1), false);
+        Task later = new Task(4, "d", TODAY.plusDays(5), false);
+        Task occurrence = new Task(Task.occurrenceId(9, TODAY), "e", TODAY, false);
+        TaskStore.Snapshot before = TaskStore.Snapshot.EMPTY.withToday(TODAY)
+                .withCounts(TaskCounts.from(Arrays.asList(new BucketCount(BucketCount.PAST, 1, 1),
+                        new BucketCount(BucketCount.TODAY, 2, 1), new BucketCount(BucketCount.FUTURE, 2, 0))))
+                .withTodayTasks(Arrays.asList(today, occurrence))
+                .withFutureTasks(Arrays.asList(tomorrow, later));
+        before = before.withHistoryPage(before.history, TaskStore.HistoryCursor.start(), Arrays.asList(yesterday));
+        assertEquals(Arrays.asList(yesterday), before.historyTasks());
+
+        TaskStore.Snapshot after = before.withToday(TODAY.plusDays(1));
+        assertEquals(Arrays.asList(tomorrow), after.todayTasks());
+        assertEquals(Arrays.asList(later), after.futureTasks());
+        // History stops before the new today; the occurrence without a row does not follow its day there
+        assertEquals(Arrays.asList(today, yesterday), after.historyTasks());
+        assertEquals(2, after.counts.getTotal(BucketCount.PAST));
+        assertEquals(2, after.counts.getCompleted(BucketCount.PAST));
+        assertEquals(1, after.counts.getTotal(BucketCount.TODAY));
+        assertEquals(0, after.counts.getCompleted(BucketCount.TODAY));
+        assertEquals(1, after.counts.getTotal(BucketCount.FUTURE));
+        assertTrue(after.mainVersion > before.mainVersion && after.historyVersion > before.historyVersion);
+    }
+
+    @Test
+    public void historyPageFromAStaleCursorIsDropped() {
+        TaskStore.Snapshot start = TaskStore.Snapshot.EMPTY.withToday(TODAY);
+        TaskStore.HistoryCursor stale = start.history;
+        TaskStore.Snapshot cleared = start.withHistoryCleared();
+        Task task = new Task(1, "a", TODAY.minusDays(1), true);
+
+        assertSame(cleared, cleared.withHistoryPage(stale, stale.after(Arrays.asList(task), 50),
+                Arrays.asList(task)));
+        TaskStore.Snapshot paged = cleared.withHistoryPage(cleared.history,
+                cleared.history.after(Arrays.asList(task), 50), Arrays.asList(task));
+        assertEquals(Arrays.asList(task), paged.historyTasks());
+        assertEquals(1, paged.history.loadedCount);
+        assertTrue(paged.history.endReached);
+    }
+}
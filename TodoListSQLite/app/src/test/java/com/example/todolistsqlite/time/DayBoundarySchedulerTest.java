@@ -0,0 +1,131 @@
+package com.example.todolistsqlite.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+@RunWith(RobolectricTestRunner.class)
+public class DayBoundarySchedulerTest {
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final List<LocalDate> changes = new ArrayList<>();
+    private final TimeZone defaultZone = TimeZone.getDefault();
+    private DayBoundaryScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        scheduler.stop();
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    public void firesOnceAtEachLocalMidnight() {
+        start(LocalDateTime.of(2026, 10, 18, 23, 59), BERLIN);
+
+        idleFor(Duration.ofSeconds(59));
+        assertEquals(Collections.emptyList(), changes);
+        idleFor(Duration.ofSeconds(1));
+        assertEquals(Collections.singletonList(LocalDate.of(2026, 10, 19)), changes);
+        idleFor(Duration.ofHours(24));
+        assertEquals(Arrays.asList(LocalDate.of(2026, 10, 19), LocalDate.of(2026, 10, 20)), changes);
+    }
+
+    @Test
+    public void followsMidnightAcrossTheEndOfDaylightSaving() {
+        // 25 October 2026 is 25 hours long in Berlin
+        start(LocalDateTime.of(2026, 10, 25, 0, 0), BERLIN);
+
+        idleFor(Duration.ofHours(24));
+        assertEquals(Collections.emptyList(), changes);
+        idleFor(Duration.ofHours(1));
+        assertEquals(Collections.singletonList(LocalDate.of(2026, 10, 26)), changes);
+    }
+
+    @Test
+    public void timeZoneChangeMovesTheDateImmediately() {
+        start(LocalDateTime.of(2026, 10, 18, 20, 0), ZoneId.of("UTC"));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        context.sendBroadcast(new Intent(Intent.ACTION_TIMEZONE_CHANGED));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Collections.singletonList(LocalDate.of(2026, 10, 19)), changes);
+        assertEquals(LocalDate.of(2026, 10, 19), scheduler.today());
+    }
+
+    @Test
+    public void stoppedSchedulerCatchesUpOnStart() {
+        start(LocalDateTime.of(2026, 10, 18, 22, 0), BERLIN);
+        scheduler.stop();
+
+        idleFor(Duration.ofHours(3));
+        assertEquals(Collections.emptyList(), changes);
+        scheduler.start();
+        assertEquals(Collections.singletonList(LocalDate.of(2026, 10, 19)), changes);
+    }
+
+    private void start(LocalDateTime localStart, ZoneId zone) {
+        Clock clock = new UptimeClock(localStart.atZone(zone).toInstant(), SystemClock.uptimeMillis(), zone);
+        scheduler = new DayBoundaryScheduler(context, clock, changes::add);
+        scheduler.start();
+    }
+
+    private static void idleFor(Duration duration) {
+        shadowOf(Looper.getMainLooper()).idleFor(duration);
+    }
+
+    // Wall time that advances with the paused main looper
+    private static final class UptimeClock extends Clock {
+        private final Instant start;
+        private final long startUptime;
+        private final ZoneId zone;
+
+        UptimeClock(Instant start, long startUptime, ZoneId zone) {
+            this.start = start;
+            this.startUptime = startUptime;
+            this.zone = zone;
+        }
+
+        @NonNull
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @NonNull
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new UptimeClock(start, startUptime, zone);
+        }
+
+        @NonNull
+        @Override
+        public Instant instant() {
+            return start.plusMillis(SystemClock.uptimeMillis() - startUptime);
+        }
+    }
+}